@@ -1,12 +1,21 @@
 package com.game.Characters;
 
+import com.game.Characters.EnemyMovement.JumpPointFinder;
+import com.game.Characters.EnemyMovement.PathCache;
+import com.game.Characters.EnemyMovement.PathFinder;
+import com.game.Characters.EnemyMovement.PathMode;
+import com.game.Characters.EnemyMovement.PathfindingService;
+import com.game.Characters.EnemyMovement.SearchBudget;
 import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.WorldSnapshot;
 import com.game.Key.Direction;
 import com.game.Utilities.Position;
 import com.game.Utilities.UtilityTool;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Abstract base class for all game characters, providing common attributes and functionality.
@@ -27,6 +36,13 @@ public abstract class Character extends Position {
     public int spriteCounter = 0;
     public int spriteNum = 1;
     public boolean onPath = true;
+    protected PathCache pathCache = new PathCache();
+    protected int previousX, previousY; // position at the start of the current simulation tick
+    protected Future<PathfindingService.Result> pendingPath;
+    protected PathFinder slicedPathFinder;
+    private boolean slicedSearchRunning = false;
+    private int slicedStartCol, slicedStartRow, slicedGoalCol, slicedGoalRow, slicedMapVersion;
+    private static final int SEARCH_SLICE = 64; // cells checked between two budget checks
 
     /**
      * Sets the default position of the character within the game world.
@@ -81,17 +97,39 @@ public abstract class Character extends Position {
         }
     }
 
+    /**
+     * Remembers the character's position at the start of a simulation tick, so drawing can
+     * interpolate between the last two simulation states.
+     */
+    public void savePreviousPosition() {
+        previousX = getXPosition();
+        previousY = getYPosition();
+    }
+
+    /**
+     * Copies the character's current image and its positions at the start and the end of the
+     * last simulation tick, for a {@link WorldSnapshot}.
+     *
+     * @return the character's sprite
+     */
+    public WorldSnapshot.Sprite snapshot() {
+        updateCurrentImage();
+        return new WorldSnapshot.Sprite(currentImage, getXPosition(), getYPosition(), previousX, previousY);
+    }
+
     /**
      * Draws the current image at the character's position.
      * The method first updates the current image based on the character's direction,
-     * then it draws that image on the given Graphics2D context at the current X and Y position.
+     * then it draws that image on the given Graphics2D context. The position is interpolated
+     * between the position at the start of the last simulation tick and the current one, by
+     * how far the renderer is into the next tick; a character that moved more than a tile in
+     * one tick (for example through a vortex) is drawn at its current position.
      * The size of the image is determined by the tile size of the game panel.
      *
      * @param g2 The Graphics2D context on which the image will be drawn.
      */
     public void draw(Graphics2D g2) {
-        updateCurrentImage();
-        g2.drawImage(currentImage,this.getXPosition(), this.getYPosition(), gamePanel.tileSize,gamePanel.tileSize,null);
+        snapshot().draw(g2, gamePanel.getInterpolationAlpha(), gamePanel.tileSize);
     }
     /**
      * Updates the character's movement speed.
@@ -104,61 +142,216 @@ public abstract class Character extends Position {
 
     public void checkCollision(){};
 
+    /**
+     * Returns the column of the tile the character is standing on.
+     *
+     * @return the tile column of the character's solid area
+     */
+    public int getTileCol(){
+        return (getXPosition() + solidArea.x)/gamePanel.tileSize;
+    }
+
+    /**
+     * Returns the row of the tile the character is standing on.
+     *
+     * @return the tile row of the character's solid area
+     */
+    public int getTileRow(){
+        return (getYPosition() + solidArea.y)/gamePanel.tileSize;
+    }
+
     /**
      * Initiates pathfinding from the character's current position to a specified goal.
+     * <p>
+     * The path found is kept in the character's {@link PathCache}. While the goal tile and
+     * the map version stay the same and the character follows the path, the next step is
+     * taken from the cache; a new search only runs when one of them changes.
      *
      * @param goalCol the column index of the goal position
      * @param goalRow the row index of the goal position
      */
     public void searchPath(int goalCol, int goalRow){
-        int startCol = (getXPosition() + solidArea.x)/gamePanel.tileSize;
-        int startRow = (getYPosition() + solidArea.y)/gamePanel.tileSize;
-
-        gamePanel.pathFinder.setNode(startCol,startRow,goalCol,goalRow,this);
-        if(gamePanel.pathFinder.search()){
-            //next worldX & worldY
-            int nextX = gamePanel.pathFinder.pathList.get(0).col * gamePanel.tileSize;
-            int nextY = gamePanel.pathFinder.pathList.get(0).row * gamePanel.tileSize;
-
-            //charater's solidarea position
-            int enLeftX = getXPosition() + solidArea.x;
-            int enRightX = getXPosition() + solidArea.x + solidArea.width;
-            int enTopY = getYPosition() + solidArea.y;
-            int enBottomY = getYPosition() + solidArea.y + solidArea.height;
-
-            if(enTopY > nextY && enLeftX >= nextX && enRightX < nextX + gamePanel.tileSize){
-                currentDirection = Direction.UP;
-            }else if( enLeftX >= nextX && enTopY < nextY && enRightX < nextX + gamePanel.tileSize){
-                currentDirection = Direction.DOWN;
-            }else if(enTopY >= nextY && enBottomY < nextY + gamePanel.tileSize){
-                if(enLeftX > nextX)
-                    currentDirection = Direction.LEFT;
-                if(enLeftX < nextX)
-                    currentDirection = Direction.RIGHT;
-            }else if(enTopY > nextY && enLeftX > nextX){
-                //up or right
-                currentDirection = Direction.UP;
-                checkCollision();
-                if(collisionOn)
-                    currentDirection = Direction.LEFT;
-
-            }else if(enLeftX < nextX && enTopY > nextY){
-                //up or right
-                currentDirection = Direction.UP;
-                checkCollision();
-                if(collisionOn)
-                    currentDirection = Direction.RIGHT;
-
-           //}else if(enTopY < nextY && enLeftX > nextX){
-            }else{
-                //down and left
-                currentDirection = Direction.DOWN;
-                checkCollision();
-                if(collisionOn)
-                    currentDirection = Direction.LEFT;
+        searchPath(goalCol, goalRow, gamePanel.pathFinder);
+    }
+
+    /**
+     * Initiates pathfinding to a specified goal with the given {@link PathFinder}, for
+     * example a {@link com.game.Characters.EnemyMovement.JumpPointFinder}.
+     *
+     * @param goalCol the column index of the goal position
+     * @param goalRow the row index of the goal position
+     * @param pathFinder the path finder that searches on a cache miss
+     */
+    public void searchPath(int goalCol, int goalRow, PathFinder pathFinder){
+        int startCol = getTileCol();
+        int startRow = getTileRow();
+        int mapVersion = gamePanel.tileM.getMapVersion();
+
+        int next = pathCache.nextStep(startCol,startRow,goalCol,goalRow,mapVersion);
+        if(next < 0){
+            pathFinder.setNode(startCol,startRow,goalCol,goalRow,this);
+            if(!pathFinder.search()){
+                pathCache.clear();
+                return;
+            }
+            pathCache.store(pathFinder,startCol,startRow,mapVersion);
+            next = pathFinder.getPathCell(0);
+        }
+        steerTowards(next % pathCache.getCols(), next / pathCache.getCols());
+
+    }
+
+    /**
+     * Initiates pathfinding to a specified goal on the worker threads of a
+     * {@link PathfindingService}, so the game loop never waits for a search.
+     * <p>
+     * The character's {@link PathCache} is used as in {@link #searchPath(int, int)}. On a
+     * miss a search is submitted, and until its result arrives on a later frame the
+     * character keeps walking in its current direction. A result planned for an older goal
+     * or map version misses the cache and is simply requested again.
+     *
+     * @param goalCol the column index of the goal position
+     * @param goalRow the row index of the goal position
+     * @param mode the {@link PathMode} whose search the worker runs
+     * @param service the service that runs the search
+     */
+    public void searchPathAsync(int goalCol, int goalRow, PathMode mode, PathfindingService service){
+        int startCol = getTileCol();
+        int startRow = getTileRow();
+        int mapVersion = gamePanel.tileM.getMapVersion();
+
+        if(pendingPath != null && pendingPath.isDone()){
+            try{
+                pathCache.store(pendingPath.get());
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }catch(ExecutionException e){
+                e.printStackTrace();
+                pathCache.clear();
             }
+            pendingPath = null;
         }
 
+        int next = pathCache.nextStep(startCol,startRow,goalCol,goalRow,mapVersion);
+        if(next < 0){
+            if(pendingPath == null){
+                pendingPath = service.submit(gamePanel.tileM.snapshotPassability(),mode,startCol,startRow,goalCol,goalRow);
+            }
+            return;
+        }
+        steerTowards(next % pathCache.getCols(), next / pathCache.getCols());
+    }
+
+    /**
+     * Initiates pathfinding to a specified goal as a search that is spread over frames.
+     * <p>
+     * The character's {@link PathCache} is used as in {@link #searchPath(int, int)}. On a
+     * miss the character's own path finder searches in slices of a few cells for as long
+     * as the shared {@link SearchBudget} allows, and continues where it stopped on the next
+     * frame. The search is started again when the goal tile or the map changes. Until it is
+     * finished the character keeps walking in its current direction, and a search that
+     * cannot reach the goal costs no more per frame than the budget.
+     *
+     * @param goalCol the column index of the goal position
+     * @param goalRow the row index of the goal position
+     * @param mode {@link PathMode#JUMP_POINT} to search with a {@link JumpPointFinder}, any
+     *             other mode for A*
+     * @param budget the search budget shared by all characters for this frame
+     */
+    public void searchPathSliced(int goalCol, int goalRow, PathMode mode, SearchBudget budget){
+        int startCol = getTileCol();
+        int startRow = getTileRow();
+        int mapVersion = gamePanel.tileM.getMapVersion();
+
+        int next = pathCache.nextStep(startCol,startRow,goalCol,goalRow,mapVersion);
+        if(next < 0){
+            if(slicedPathFinder == null || (mode == PathMode.JUMP_POINT) != (slicedPathFinder instanceof JumpPointFinder)){
+                slicedPathFinder = mode == PathMode.JUMP_POINT ? new JumpPointFinder(gamePanel) : new PathFinder(gamePanel);
+                slicedSearchRunning = false;
+            }
+            if(!slicedSearchRunning || goalCol != slicedGoalCol || goalRow != slicedGoalRow || mapVersion != slicedMapVersion){
+                slicedPathFinder.setNode(startCol,startRow,goalCol,goalRow,this);
+                slicedStartCol = startCol;
+                slicedStartRow = startRow;
+                slicedGoalCol = goalCol;
+                slicedGoalRow = goalRow;
+                slicedMapVersion = mapVersion;
+                slicedSearchRunning = true;
+            }
+            while(slicedSearchRunning){
+                int granted = budget.grant(SEARCH_SLICE);
+                if(granted == 0){
+                    return;
+                }
+                int before = slicedPathFinder.getStep();
+                slicedSearchRunning = !slicedPathFinder.resume(granted);
+                budget.spend(Math.max(1, slicedPathFinder.getStep() - before));
+            }
+            if(!slicedPathFinder.goalReached){
+                pathCache.clear();
+                return;
+            }
+            pathCache.store(slicedPathFinder,slicedStartCol,slicedStartRow,slicedMapVersion);
+            next = pathCache.nextStep(startCol,startRow,goalCol,goalRow,mapVersion);
+            if(next < 0){
+                return;
+            }
+        }
+        steerTowards(next % pathCache.getCols(), next / pathCache.getCols());
+    }
+
+    /**
+     * Sets the current direction so the character moves onto a neighbouring tile.
+     * <p>
+     * The direction is chosen from the character's solid area relative to the next tile.
+     * When the character is not aligned with the tile yet, the vertical move is tried first
+     * and the horizontal one is used if it would collide.
+     *
+     * @param nextCol the column of the next tile on the path
+     * @param nextRow the row of the next tile on the path
+     */
+    public void steerTowards(int nextCol, int nextRow){
+        //next worldX & worldY
+        int nextX = nextCol * gamePanel.tileSize;
+        int nextY = nextRow * gamePanel.tileSize;
+
+        //charater's solidarea position
+        int enLeftX = getXPosition() + solidArea.x;
+        int enRightX = getXPosition() + solidArea.x + solidArea.width;
+        int enTopY = getYPosition() + solidArea.y;
+        int enBottomY = getYPosition() + solidArea.y + solidArea.height;
+
+        if(enTopY > nextY && enLeftX >= nextX && enRightX < nextX + gamePanel.tileSize){
+            currentDirection = Direction.UP;
+        }else if( enLeftX >= nextX && enTopY < nextY && enRightX < nextX + gamePanel.tileSize){
+            currentDirection = Direction.DOWN;
+        }else if(enTopY >= nextY && enBottomY < nextY + gamePanel.tileSize){
+            if(enLeftX > nextX)
+                currentDirection = Direction.LEFT;
+            if(enLeftX < nextX)
+                currentDirection = Direction.RIGHT;
+        }else if(enTopY > nextY && enLeftX > nextX){
+            //up or right
+            currentDirection = Direction.UP;
+            checkCollision();
+            if(collisionOn)
+                currentDirection = Direction.LEFT;
+
+        }else if(enLeftX < nextX && enTopY > nextY){
+            //up or right
+            currentDirection = Direction.UP;
+            checkCollision();
+            if(collisionOn)
+                currentDirection = Direction.RIGHT;
+
+       //}else if(enTopY < nextY && enLeftX > nextX){
+        }else{
+            //down and left
+            currentDirection = Direction.DOWN;
+            checkCollision();
+            if(collisionOn)
+                currentDirection = Direction.LEFT;
+        }
     }
 
 }
@@ -1,5 +1,9 @@
 package com.game.Characters;
 
+import com.game.Characters.EnemyMovement.DStarLite;
+import com.game.Characters.EnemyMovement.DistanceField;
+import com.game.Characters.EnemyMovement.PathMode;
+import com.game.Characters.EnemyMovement.PathScheduling;
 import com.game.GamePanel.MainGamePanel;
 import com.game.Key.Direction;
 
@@ -14,6 +18,10 @@ import com.game.Key.Direction;
  */
 public class Enemy extends Character {
 
+    protected PathMode pathMode = PathMode.FLOW_FIELD;
+    protected PathScheduling pathScheduling = PathScheduling.SYNCHRONOUS;
+    private DStarLite incrementalPlanner;
+
     /**
      * Sets the default position and orientation of the enemy character.
      * This method is intended to be overridden by subclasses for custom positioning.
@@ -57,15 +65,89 @@ public class Enemy extends Character {
 
     /**
      * Determines and initiates the enemy's actions based on its AI logic.
-     * Actions may include pathfinding towards the player or random movement.
+     * <p>
+     * In {@link PathMode#FLOW_FIELD} mode the next step is read from the game panel's
+     * {@link DistanceField}, which all enemies share and which is only rebuilt when the hero
+     * reaches another tile. In {@link PathMode#D_STAR_LITE} mode the enemy's own incremental
+     * planner repairs its previous search, and in {@link PathMode#HIERARCHICAL} mode the
+     * shared hierarchical path finder searches its entrance graph. In
+     * {@link PathMode#DISTANCE_TABLE} mode the step is looked up in the shared distance
+     * table. In {@link PathMode#A_STAR} and {@link PathMode#JUMP_POINT} mode a path is searched (or reused from the path cache),
+     * on the game loop or, with {@link PathScheduling#ASYNCHRONOUS} scheduling, on the game
+     * panel's pathfinding service. {@link PathScheduling#TIME_SLICED} searches are spread
+     * over frames within the game panel's search budget.
      */
     @Override
     public void setAction() {
 
-            int goalCol = (gamePanel.getHero().getXPosition() + gamePanel.getHero().solidArea.x)/gamePanel.tileSize;
-            int goalRow = (gamePanel.getHero().getYPosition() + gamePanel.getHero().solidArea.y)/gamePanel.tileSize;
-            searchPath(goalCol,goalRow);
+            int goalCol = gamePanel.getHero().getTileCol();
+            int goalRow = gamePanel.getHero().getTileRow();
+
+            if (pathMode == PathMode.FLOW_FIELD) {
+                DistanceField distanceField = gamePanel.distanceField;
+                distanceField.update(goalCol, goalRow);
+                int next = distanceField.nextStep(getTileCol(), getTileRow());
+                if (next >= 0) {
+                    steerTowards(next % distanceField.getCols(), next / distanceField.getCols());
+                }
+            } else if (pathMode == PathMode.D_STAR_LITE) {
+                if (incrementalPlanner == null) {
+                    incrementalPlanner = new DStarLite(gamePanel);
+                }
+                int next = incrementalPlanner.nextStep(getTileCol(), getTileRow(), goalCol, goalRow);
+                if (next >= 0) {
+                    int cols = gamePanel.tileM.getMapCols();
+                    steerTowards(next % cols, next / cols);
+                }
+            } else if (pathMode == PathMode.DISTANCE_TABLE) {
+                int next = gamePanel.distanceTable.nextStep(getTileCol(), getTileRow(), goalCol, goalRow);
+                if (next >= 0) {
+                    int cols = gamePanel.tileM.getMapCols();
+                    steerTowards(next % cols, next / cols);
+                }
+            } else if (pathMode == PathMode.HIERARCHICAL) {
+                int next = gamePanel.hierarchicalPathFinder.nextStep(getTileCol(), getTileRow(), goalCol, goalRow);
+                if (next >= 0) {
+                    int cols = gamePanel.tileM.getMapCols();
+                    steerTowards(next % cols, next / cols);
+                }
+            } else if (pathScheduling == PathScheduling.TIME_SLICED) {
+                searchPathSliced(goalCol,goalRow,pathMode,gamePanel.searchBudget);
+            } else if (pathScheduling == PathScheduling.ASYNCHRONOUS) {
+                searchPathAsync(goalCol,goalRow,pathMode,gamePanel.pathfindingService);
+            } else if (pathMode == PathMode.JUMP_POINT) {
+                searchPath(goalCol,goalRow,gamePanel.jumpPointFinder);
+            } else {
+                searchPath(goalCol,goalRow);
+            }
+
+    }
+
+    public PathMode getPathMode() {
+        return pathMode;
+    }
+
+    /**
+     * Chooses how this enemy works out its next step towards the hero.
+     *
+     * @param pathMode the {@link PathMode} to use from now on
+     */
+    public void setPathMode(PathMode pathMode) {
+        this.pathMode = pathMode;
+    }
 
+    public PathScheduling getPathScheduling() {
+        return pathScheduling;
+    }
+
+    /**
+     * Chooses whether this enemy's path searches run on the game loop or on worker threads.
+     * Only {@link PathMode#A_STAR} and {@link PathMode#JUMP_POINT} searches are scheduled.
+     *
+     * @param pathScheduling the {@link PathScheduling} to use from now on
+     */
+    public void setPathScheduling(PathScheduling pathScheduling) {
+        this.pathScheduling = pathScheduling;
     }
 
     /**
@@ -85,16 +167,16 @@ public class Enemy extends Character {
         if (!collisionOn) {
             switch (currentDirection) {
                 case UP:
-                    this.moveUp(movementSpeed);
+                    this.moveUp(getMovementStep());
                     return true;
                 case DOWN:
-                    this.moveDown(movementSpeed);
+                    this.moveDown(getMovementStep());
                     return true;
                 case LEFT:
-                    this.moveLeft(movementSpeed);
+                    this.moveLeft(getMovementStep());
                     return true;
                 case RIGHT:
-                    this.moveRight(movementSpeed);
+                    this.moveRight(getMovementStep());
                     return true;
             }
         }
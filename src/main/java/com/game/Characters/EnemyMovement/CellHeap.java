@@ -0,0 +1,128 @@
+package com.game.Characters.EnemyMovement;
+
+import java.util.Arrays;
+
+/**
+ * An indexed binary min-heap of grid cells used as the open set of the {@link PathFinder}.
+ * <p>
+ * Cells are identified by their index {@code row * cols + col} and ordered by the F cost
+ * array of the path finder; among cells with equal F cost the one with the lower H cost
+ * (closest to the goal) comes first. The heap remembers the slot of every cell it holds,
+ * so removing a cell and lowering its cost ({@link #decreaseKey(int)}) both take O(log n).
+ */
+public class CellHeap {
+    private int[] heap = new int[64];
+    private int[] slot = new int[0];
+    private int size = 0;
+    private int[] fCost;
+    private int[] gCost;
+
+    /**
+     * Points the heap at the cost arrays of a grid with the given number of cells.
+     *
+     * @param cells the number of cells in the grid
+     * @param fCost the F cost of every cell
+     * @param gCost the G cost of every cell
+     */
+    void setGrid(int cells, int[] fCost, int[] gCost){
+        if (slot.length < cells) {
+            slot = new int[cells];
+        }
+        this.fCost = fCost;
+        this.gCost = gCost;
+        size = 0;
+    }
+
+    /**
+     * Adds a cell to the heap.
+     *
+     * @param cell the index of a cell that is not in the heap yet
+     */
+    public void add(int cell){
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = cell;
+        slot[cell] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Removes and returns the cell with the lowest F cost.
+     *
+     * @return the best cell, or {@code -1} if the heap is empty
+     */
+    public int poll(){
+        if (size == 0) return -1;
+        int best = heap[0];
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            slot[heap[0]] = 0;
+            siftDown(0);
+        }
+        return best;
+    }
+
+    /**
+     * Restores the heap order after the F cost of a cell in the heap has been lowered.
+     *
+     * @param cell the index of the cell whose cost was decreased
+     */
+    public void decreaseKey(int cell){
+        siftUp(slot[cell]);
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Empties the heap in constant time. Slots of the removed cells are simply left stale.
+     */
+    public void clear(){
+        size = 0;
+    }
+
+    private boolean less(int a, int b){
+        if (fCost[a] != fCost[b]) return fCost[a] < fCost[b];
+        // equal F: prefer the lower H cost, i.e. the higher G cost
+        return gCost[a] > gCost[b];
+    }
+
+    private void siftUp(int i){
+        int cell = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (!less(cell, p)) break;
+            heap[i] = p;
+            slot[p] = i;
+            i = parent;
+        }
+        heap[i] = cell;
+        slot[cell] = i;
+    }
+
+    private void siftDown(int i){
+        int cell = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!less(heap[child], cell)) break;
+            heap[i] = heap[child];
+            slot[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = cell;
+        slot[cell] = i;
+    }
+}
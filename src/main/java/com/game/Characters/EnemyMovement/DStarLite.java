@@ -0,0 +1,423 @@
+package com.game.Characters.EnemyMovement;
+
+import com.game.GamePanel.MainGamePanel;
+import com.game.Tile.TileManager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * An incremental planner based on Moving Target D* Lite that repairs its previous search
+ * instead of planning from scratch, while both the enemy and the hero walk around.
+ * <p>
+ * The search tree is rooted at the enemy's tile and grows towards the hero. When the hero
+ * walks to another tile only the key modifier is adjusted, as D* Lite does for its moving
+ * start. When the enemy steps to another tile, the part of the tree that hangs below that
+ * tile, which holds the way on to the hero, is kept as the new tree: its values only lose
+ * the cost of the step. The rest of the tree is cleared and refilled from the kept part as
+ * far as the next search needs it. When tiles change their passability only the cells next
+ * to them are updated. The tree is only planned again from scratch for a new map, or when
+ * the enemy steps onto a tile the tree has not settled yet.
+ * <p>
+ * Each enemy that uses this planner needs its own instance, since the tree belongs to
+ * that enemy's position.
+ */
+public class DStarLite {
+    private static final int INF = Integer.MAX_VALUE / 4;
+    private static final byte UNMARKED = 0, VISITING = 1, KEPT = 2, CLEARED = 3;
+
+    private final MainGamePanel gamePanel;
+    private int cols, rows;
+    private int[] g = new int[0], rhs = new int[0];
+    private int[] key1 = new int[0], key2 = new int[0];
+    private int[] heap = new int[0], slot = new int[0];
+    private int[] parent = new int[0]; // the neighbour each cell's rhs value came from, or -1
+    private int[] chain = new int[0];
+    private byte[] mark = new byte[0];
+    private int heapSize = 0;
+    private int root = -1, start = -1, last = -1;
+    private int km = 0;
+    private int mapVersion;
+    private BitSet passability;
+    private long expansions = 0;
+
+    public DStarLite(MainGamePanel gamePanel){
+        this.gamePanel = gamePanel;
+    }
+
+    /**
+     * Works out the enemy's next step towards the hero.
+     * <p>
+     * The previous search is reused: the tree is moved along with the enemy and only
+     * rebuilt when a different map was loaded or the enemy left the settled part of the tree.
+     *
+     * @param enemyCol the column of the enemy's tile
+     * @param enemyRow the row of the enemy's tile
+     * @param heroCol the column of the hero's tile
+     * @param heroRow the row of the hero's tile
+     * @return the index ({@code row * cols + col}) of the enemy's next cell, or {@code -1}
+     *         if the enemy already stands on the hero's tile or cannot reach it
+     */
+    public int nextStep(int enemyCol, int enemyRow, int heroCol, int heroRow){
+        TileManager tileM = gamePanel.tileM;
+        if (tileM.getMapCols() != cols || tileM.getMapRows() != rows) {
+            allocate(tileM.getMapCols(), tileM.getMapRows());
+        }
+        if (!inside(enemyCol, enemyRow) || !inside(heroCol, heroRow)) {
+            return -1;
+        }
+        int enemy = enemyRow * cols + enemyCol;
+        int hero = heroRow * cols + heroCol;
+        if (enemy == hero) {
+            return -1;
+        }
+
+        if (passability == null || (enemy != root && !moveRoot(enemy))) {
+            initialize(enemy, hero, tileM);
+        } else {
+            if (hero != start) {
+                km += heuristic(last, hero);
+                last = hero;
+                start = hero;
+            }
+            if (tileM.getMapVersion() != mapVersion) {
+                applyMapChanges(tileM);
+            }
+        }
+        computeShortestPath();
+        return stepBeforeRoot();
+    }
+
+    private boolean inside(int col, int row){
+        return col >= 0 && row >= 0 && col < cols && row < rows;
+    }
+
+    private void allocate(int cols, int rows){
+        this.cols = cols;
+        this.rows = rows;
+        int cells = cols * rows;
+        g = new int[cells];
+        rhs = new int[cells];
+        key1 = new int[cells];
+        key2 = new int[cells];
+        heap = new int[cells];
+        slot = new int[cells];
+        parent = new int[cells];
+        chain = new int[cells];
+        mark = new byte[cells];
+        passability = null;
+        root = -1;
+    }
+
+    /**
+     * Starts a new search tree rooted at the enemy's cell.
+     */
+    private void initialize(int enemy, int hero, TileManager tileM){
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        Arrays.fill(slot, -1);
+        Arrays.fill(parent, -1);
+        heapSize = 0;
+        km = 0;
+        root = enemy;
+        start = hero;
+        last = hero;
+        passability = tileM.getPassability();
+        mapVersion = tileM.getMapVersion();
+        rhs[root] = 0;
+        setKey(root);
+        push(root);
+    }
+
+    /**
+     * Moves the root of the tree to the enemy's new cell, as Moving Target D* Lite does.
+     * <p>
+     * The cells whose way to the old root ran through the new one keep their values, less
+     * the value of the new root, so the new root is at zero again. Every other cell is
+     * cleared and taken off the queue, and queued again with the value through a kept
+     * neighbour if it has one. Only the cleared cells the next search runs into are
+     * expanded again.
+     *
+     * @param enemy the enemy's new cell
+     * @return {@code false} if the cell is not settled in the tree, so it has to be
+     *         planned from scratch
+     */
+    private boolean moveRoot(int enemy){
+        if (g[enemy] >= INF || g[enemy] != rhs[enemy]) {
+            return false;
+        }
+        int offset = g[enemy];
+        markSubtree(enemy);
+        for (int cell = 0; cell < mark.length; cell++) {
+            if (mark[cell] != KEPT && slot[cell] >= 0) {
+                remove(cell);
+            }
+        }
+        // the kept keys all move by the same amount, so the heap stays in order
+        int cleared = 0;
+        for (int cell = 0; cell < mark.length; cell++) {
+            if (mark[cell] == KEPT) {
+                if (g[cell] < INF) g[cell] -= offset;
+                if (rhs[cell] < INF) rhs[cell] -= offset;
+                if (slot[cell] >= 0 && key1[cell] < INF) {
+                    key1[cell] -= offset;
+                    key2[cell] -= offset;
+                }
+            } else if (g[cell] < INF || rhs[cell] < INF) {
+                g[cell] = INF;
+                rhs[cell] = INF;
+                parent[cell] = -1;
+                chain[cleared++] = cell;
+            }
+        }
+        root = enemy;
+        parent[root] = -1;
+        for (int i = 0; i < cleared; i++) {
+            updateRhs(chain[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Marks the cells whose parents lead to the given cell as {@link #KEPT} and all others
+     * as {@link #CLEARED}. Each cell is walked over once; a chain of parents that runs in a
+     * circle is cleared.
+     */
+    private void markSubtree(int top){
+        Arrays.fill(mark, UNMARKED);
+        mark[top] = KEPT;
+        for (int cell = 0; cell < mark.length; cell++) {
+            int length = 0;
+            int c = cell;
+            while (c >= 0 && mark[c] == UNMARKED) {
+                mark[c] = VISITING;
+                chain[length++] = c;
+                c = parent[c];
+            }
+            byte result = c >= 0 && mark[c] == KEPT ? KEPT : CLEARED;
+            while (length > 0) {
+                mark[chain[--length]] = result;
+            }
+        }
+    }
+
+    /**
+     * Updates the cells whose edge costs changed since the last call. Entering a cell costs
+     * one step when it is walkable, so a cell that changed passability affects the cost from
+     * each of its neighbours.
+     */
+    private void applyMapChanges(TileManager tileM){
+        BitSet current = tileM.getPassability();
+        BitSet changed = (BitSet) passability.clone();
+        changed.xor(current);
+        passability = current;
+        mapVersion = tileM.getMapVersion();
+        for (int cell = changed.nextSetBit(0); cell >= 0; cell = changed.nextSetBit(cell + 1)) {
+            int col = cell % cols;
+            int row = cell / cols;
+            if (row - 1 >= 0) updateRhs(cell - cols);
+            if (col - 1 >= 0) updateRhs(cell - 1);
+            if (row + 1 < rows) updateRhs(cell + cols);
+            if (col + 1 < cols) updateRhs(cell + 1);
+        }
+    }
+
+    /**
+     * Returns the cost of stepping onto a cell: one step if it is walkable or the root,
+     * otherwise infinite.
+     */
+    private int enterCost(int cell){
+        return cell == root || passability.get(cell) ? 1 : INF;
+    }
+
+    private int heuristic(int a, int b){
+        return Math.abs(a % cols - b % cols) + Math.abs(a / cols - b / cols);
+    }
+
+    /**
+     * Recomputes the right-hand-side value of a cell from its neighbours and requeues it.
+     */
+    private void updateRhs(int cell){
+        if (cell != root) {
+            int col = cell % cols;
+            int row = cell / cols;
+            int best = INF;
+            int via = -1;
+            if (row - 1 >= 0 && cost(cell - cols) < best) { via = cell - cols; best = cost(via); }
+            if (col - 1 >= 0 && cost(cell - 1) < best) { via = cell - 1; best = cost(via); }
+            if (row + 1 < rows && cost(cell + cols) < best) { via = cell + cols; best = cost(via); }
+            if (col + 1 < cols && cost(cell + 1) < best) { via = cell + 1; best = cost(via); }
+            rhs[cell] = best;
+            parent[cell] = via;
+        }
+        updateVertex(cell);
+    }
+
+    private int cost(int neighbour){
+        int c = enterCost(neighbour);
+        return c >= INF || g[neighbour] >= INF ? INF : c + g[neighbour];
+    }
+
+    private void updateVertex(int cell){
+        boolean queued = slot[cell] >= 0;
+        if (g[cell] != rhs[cell]) {
+            setKey(cell);
+            if (queued) {
+                siftUp(slot[cell]);
+                siftDown(slot[cell]);
+            } else {
+                push(cell);
+            }
+        } else if (queued) {
+            remove(cell);
+        }
+    }
+
+    private void setKey(int cell){
+        int m = Math.min(g[cell], rhs[cell]);
+        key1[cell] = m >= INF ? INF : m + heuristic(start, cell) + km;
+        key2[cell] = m;
+    }
+
+    private boolean topBeforeStart(){
+        if (heapSize == 0) return false;
+        int top = heap[0];
+        int m = Math.min(g[start], rhs[start]);
+        int startKey1 = m >= INF ? INF : m + km;
+        if (key1[top] != startKey1) return key1[top] < startKey1;
+        return key2[top] < m;
+    }
+
+    /**
+     * Expands cells until the hero's cell is consistent and nothing on the queue can
+     * still improve it.
+     */
+    private void computeShortestPath(){
+        while (topBeforeStart() || rhs[start] != g[start]) {
+            if (heapSize == 0) break;
+            int u = heap[0];
+            int oldKey1 = key1[u], oldKey2 = key2[u];
+            setKey(u);
+            if (oldKey1 < key1[u] || (oldKey1 == key1[u] && oldKey2 < key2[u])) {
+                siftDown(0);
+                continue;
+            }
+            expansions++;
+            int col = u % cols;
+            int row = u / cols;
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                remove(u);
+                int c = enterCost(u);
+                if (c < INF) {
+                    if (row - 1 >= 0) relax(u - cols, u, c + g[u]);
+                    if (col - 1 >= 0) relax(u - 1, u, c + g[u]);
+                    if (row + 1 < rows) relax(u + cols, u, c + g[u]);
+                    if (col + 1 < cols) relax(u + 1, u, c + g[u]);
+                }
+            } else {
+                g[u] = INF;
+                updateRhs(u);
+                if (row - 1 >= 0) updateRhs(u - cols);
+                if (col - 1 >= 0) updateRhs(u - 1);
+                if (row + 1 < rows) updateRhs(u + cols);
+                if (col + 1 < cols) updateRhs(u + 1);
+            }
+        }
+    }
+
+    private void relax(int cell, int u, int value){
+        if (cell != root && value < rhs[cell]) {
+            rhs[cell] = value;
+            parent[cell] = u;
+            updateVertex(cell);
+        }
+    }
+
+    /**
+     * Walks from the hero's cell down the tree and returns the cell just before the root,
+     * which is the enemy's next step.
+     */
+    private int stepBeforeRoot(){
+        int cell = start;
+        for (int guard = 0; guard < cols * rows; guard++) {
+            int col = cell % cols;
+            int row = cell / cols;
+            int next = -1;
+            int best = INF;
+            if (row - 1 >= 0 && cost(cell - cols) < best) { next = cell - cols; best = cost(next); }
+            if (col - 1 >= 0 && cost(cell - 1) < best) { next = cell - 1; best = cost(next); }
+            if (row + 1 < rows && cost(cell + cols) < best) { next = cell + cols; best = cost(next); }
+            if (col + 1 < cols && cost(cell + 1) < best) { next = cell + 1; }
+            if (next < 0) return -1;
+            if (next == root) return cell;
+            cell = next;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of cells expanded by this planner since it was created.
+     *
+     * @return the expansion count
+     */
+    public long getExpansions(){
+        return expansions;
+    }
+
+    private boolean less(int a, int b){
+        if (key1[a] != key1[b]) return key1[a] < key1[b];
+        return key2[a] < key2[b];
+    }
+
+    private void push(int cell){
+        heap[heapSize] = cell;
+        slot[cell] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private void remove(int cell){
+        int i = slot[cell];
+        slot[cell] = -1;
+        heapSize--;
+        if (i != heapSize) {
+            int moved = heap[heapSize];
+            heap[i] = moved;
+            slot[moved] = i;
+            siftDown(i);
+            if (heap[i] == moved) {
+                siftUp(i);
+            }
+        }
+    }
+
+    private void siftUp(int i){
+        int cell = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(cell, heap[parent])) break;
+            heap[i] = heap[parent];
+            slot[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = cell;
+        slot[cell] = i;
+    }
+
+    private void siftDown(int i){
+        int cell = heap[i];
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], cell)) break;
+            heap[i] = heap[child];
+            slot[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = cell;
+        slot[cell] = i;
+    }
+}
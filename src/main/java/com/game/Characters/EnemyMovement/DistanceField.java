@@ -0,0 +1,141 @@
+package com.game.Characters.EnemyMovement;
+
+import com.game.GamePanel.MainGamePanel;
+import com.game.Tile.TileManager;
+
+import java.util.Arrays;
+
+/**
+ * A breadth-first distance field (flow field) rooted at the hero's tile.
+ * <p>
+ * Every walkable cell stores its distance in steps to the hero. The field is only rebuilt
+ * when the hero moves to another tile or the map's passability changes; in between, any number of
+ * enemies can look up their next step in constant time with {@link #nextStep(int, int)},
+ * so the cost of chasing the hero no longer grows with the number of enemies.
+ */
+public class DistanceField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final MainGamePanel gamePanel;
+    private int builtForVersion;
+    private int cols, rows;
+    private int rootCol = -1, rootRow = -1;
+    private int[] distance = new int[0];
+    private int[] queue = new int[0];
+    private int rebuildCount = 0;
+
+    public DistanceField(MainGamePanel gamePanel){
+        this.gamePanel = gamePanel;
+    }
+
+    /**
+     * Makes sure the field is rooted at the given tile, rebuilding it only when the tile
+     * or the map version changed since the last build.
+     *
+     * @param heroCol the column of the hero's tile
+     * @param heroRow the row of the hero's tile
+     */
+    public void update(int heroCol, int heroRow){
+        TileManager tileM = gamePanel.tileM;
+        if (tileM.getMapVersion() == builtForVersion && heroCol == rootCol && heroRow == rootRow) {
+            return;
+        }
+        builtForVersion = tileM.getMapVersion();
+        rootCol = heroCol;
+        rootRow = heroRow;
+        rebuild(tileM);
+    }
+
+    /**
+     * Recomputes the distance of every cell with a breadth-first search from the root.
+     * The root is always part of the field, even if its tile is not steppable.
+     */
+    private void rebuild(TileManager tileM){
+        cols = tileM.getMapCols();
+        rows = tileM.getMapRows();
+        int cells = cols * rows;
+        if (distance.length != cells) {
+            distance = new int[cells];
+            queue = new int[cells];
+        }
+        Arrays.fill(distance, UNREACHABLE);
+        rebuildCount++;
+        if (rootCol < 0 || rootRow < 0 || rootCol >= cols || rootRow >= rows) {
+            return;
+        }
+
+        int head = 0, tail = 0;
+        int root = rootRow * cols + rootCol;
+        distance[root] = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int cell = queue[head++];
+            int col = cell % cols;
+            int row = cell / cols;
+            int next = distance[cell] + 1;
+            if (row - 1 >= 0 && distance[cell - cols] == UNREACHABLE && tileM.isPassable(col, row - 1)) {
+                distance[cell - cols] = next;
+                queue[tail++] = cell - cols;
+            }
+            if (col - 1 >= 0 && distance[cell - 1] == UNREACHABLE && tileM.isPassable(col - 1, row)) {
+                distance[cell - 1] = next;
+                queue[tail++] = cell - 1;
+            }
+            if (row + 1 < rows && distance[cell + cols] == UNREACHABLE && tileM.isPassable(col, row + 1)) {
+                distance[cell + cols] = next;
+                queue[tail++] = cell + cols;
+            }
+            if (col + 1 < cols && distance[cell + 1] == UNREACHABLE && tileM.isPassable(col + 1, row)) {
+                distance[cell + 1] = next;
+                queue[tail++] = cell + 1;
+            }
+        }
+    }
+
+    /**
+     * Looks up the neighbouring cell one step closer to the hero.
+     *
+     * @param col the column of the cell to move from
+     * @param row the row of the cell to move from
+     * @return the index ({@code row * cols + col}) of the next cell, or {@code -1} if the
+     *         cell is the root, outside the map, or the hero cannot be reached from it
+     */
+    public int nextStep(int col, int row){
+        if (col < 0 || row < 0 || col >= cols || row >= rows) return -1;
+        int cell = row * cols + col;
+        int best = -1;
+        int bestDistance = distance[cell];
+        if (row - 1 >= 0 && distance[cell - cols] < bestDistance) {
+            best = cell - cols;
+            bestDistance = distance[best];
+        }
+        if (col - 1 >= 0 && distance[cell - 1] < bestDistance) {
+            best = cell - 1;
+            bestDistance = distance[best];
+        }
+        if (row + 1 < rows && distance[cell + cols] < bestDistance) {
+            best = cell + cols;
+            bestDistance = distance[best];
+        }
+        if (col + 1 < cols && distance[cell + 1] < bestDistance) {
+            best = cell + 1;
+        }
+        return best;
+    }
+
+    /**
+     * Returns the number of steps from a cell to the hero.
+     *
+     * @param col the column of the cell
+     * @param row the row of the cell
+     * @return the distance, or {@link #UNREACHABLE}
+     */
+    public int getDistance(int col, int row){
+        if (col < 0 || row < 0 || col >= cols || row >= rows) return UNREACHABLE;
+        return distance[row * cols + col];
+    }
+
+    public int getCols(){return cols;}
+
+    public int getRebuildCount(){return rebuildCount;}
+}
@@ -0,0 +1,236 @@
+package com.game.Characters.EnemyMovement;
+
+import com.game.GamePanel.MainGamePanel;
+import com.game.Tile.TileManager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A table of next steps between all pairs of map cells, so steering an enemy is a single
+ * lookup.
+ * <p>
+ * For every target cell the table holds one row with a byte per cell: the direction of
+ * the first step from that cell towards the target on a shortest path. A row is filled by
+ * one breadth-first search from its target. Small maps get a full table, built once per
+ * map with the rows spread over all cores; a 28x18 map needs about 250 KB. Maps with more
+ * cells than {@link #setMaxFullCells(int) the full-table limit} only keep the rows of
+ * recently used targets, built when first needed. The table is rebuilt whenever the
+ * passability of the map changes.
+ */
+public class DistanceTable {
+    /** Next-step value of a cell that is the target itself or cannot reach it. */
+    public static final byte NONE = -1;
+    private static final byte UP = 0, LEFT = 1, DOWN = 2, RIGHT = 3;
+
+    private final MainGamePanel gamePanel;
+    private boolean precomputed = false;
+    private int maxFullCells = 4096;
+    private int lazyRows = 256;
+
+    private int cols, rows;
+    private BitSet passability;
+    private int mapVersion;
+    private byte[][] fullTable; // null while rows are built lazily
+    private Map<Integer, byte[]> recentRows;
+    private long rowBuilds = 0;
+
+    public DistanceTable(MainGamePanel gamePanel){
+        this.gamePanel = gamePanel;
+    }
+
+    /**
+     * Builds the table for the given map. A full table is built right away in parallel;
+     * for a large map the cache of lazily built rows is emptied instead.
+     *
+     * @param tileM the tile manager of the map
+     */
+    public void build(TileManager tileM){
+        cols = tileM.getMapCols();
+        rows = tileM.getMapRows();
+        passability = tileM.getPassability();
+        mapVersion = tileM.getMapVersion();
+        int cells = cols * rows;
+        if (cells <= maxFullCells) {
+            recentRows = null;
+            byte[][] table = new byte[cells][];
+            IntStream.range(0, cells).parallel().forEach(target -> table[target] = buildRow(target));
+            fullTable = table;
+            rowBuilds += cells;
+        } else {
+            fullTable = null;
+            recentRows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                    return size() > lazyRows;
+                }
+            };
+        }
+    }
+
+    /**
+     * Fills the row of one target with a breadth-first search from it. The target itself is
+     * accepted even when its tile cannot be stepped on.
+     */
+    private byte[] buildRow(int target){
+        byte[] row = new byte[cols * rows];
+        Arrays.fill(row, NONE);
+        int[] queue = new int[cols * rows];
+        boolean[] seen = new boolean[cols * rows];
+        int head = 0, tail = 0;
+        queue[tail++] = target;
+        seen[target] = true;
+        while (head < tail) {
+            int cell = queue[head++];
+            int col = cell % cols;
+            int r = cell / cols;
+            // a neighbour reached from this cell steps back towards it
+            if (r - 1 >= 0) tail = visit(row, seen, queue, tail, cell - cols, DOWN);
+            if (col - 1 >= 0) tail = visit(row, seen, queue, tail, cell - 1, RIGHT);
+            if (r + 1 < rows) tail = visit(row, seen, queue, tail, cell + cols, UP);
+            if (col + 1 < cols) tail = visit(row, seen, queue, tail, cell + 1, LEFT);
+        }
+        return row;
+    }
+
+    private int visit(byte[] row, boolean[] seen, int[] queue, int tail, int cell, byte direction){
+        if (seen[cell] || !passability.get(cell)) {
+            return tail;
+        }
+        seen[cell] = true;
+        row[cell] = direction;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    /**
+     * Looks up the next step from one cell towards another. The table is built or rebuilt
+     * first if the map changed since the last lookup.
+     *
+     * @param startCol the column of the start tile
+     * @param startRow the row of the start tile
+     * @param goalCol the column of the goal tile
+     * @param goalRow the row of the goal tile
+     * @return the index ({@code row * cols + col}) of the next cell, or {@code -1} if the
+     *         start is the goal or the goal cannot be reached
+     */
+    public int nextStep(int startCol, int startRow, int goalCol, int goalRow){
+        ensureCurrent();
+        if (startCol < 0 || startRow < 0 || startCol >= cols || startRow >= rows
+                || goalCol < 0 || goalRow < 0 || goalCol >= cols || goalRow >= rows) {
+            return -1;
+        }
+        int start = startRow * cols + startCol;
+        switch (row(goalRow * cols + goalCol)[start]) {
+            case UP: return start - cols;
+            case LEFT: return start - 1;
+            case DOWN: return start + cols;
+            case RIGHT: return start + 1;
+            default: return -1;
+        }
+    }
+
+    private void ensureCurrent(){
+        TileManager tileM = gamePanel.tileM;
+        if (passability == null || tileM.getMapVersion() != mapVersion) {
+            build(tileM);
+        }
+    }
+
+    private byte[] row(int target){
+        if (fullTable != null) {
+            return fullTable[target];
+        }
+        byte[] row = recentRows.get(target);
+        if (row == null) {
+            row = buildRow(target);
+            recentRows.put(target, row);
+            rowBuilds++;
+        }
+        return row;
+    }
+
+    /**
+     * Returns the number of steps from one cell to another by following the table.
+     *
+     * @param startCol the column of the start tile
+     * @param startRow the row of the start tile
+     * @param goalCol the column of the goal tile
+     * @param goalRow the row of the goal tile
+     * @return the distance, or {@code -1} if the goal cannot be reached
+     */
+    public int getDistance(int startCol, int startRow, int goalCol, int goalRow){
+        ensureCurrent();
+        int goal = goalRow * cols + goalCol;
+        int cell = startRow * cols + startCol;
+        int steps = 0;
+        while (cell != goal) {
+            cell = nextStep(cell % cols, cell / cols, goalCol, goalRow);
+            if (cell < 0) {
+                return -1;
+            }
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Chooses whether {@link TileManager#loadMap()} builds the table as soon as a map is
+     * loaded, instead of on the first lookup.
+     *
+     * @param precomputed {@code true} to build the table while loading maps
+     */
+    public void setPrecomputed(boolean precomputed){
+        this.precomputed = precomputed;
+    }
+
+    public boolean isPrecomputed(){
+        return precomputed;
+    }
+
+    /**
+     * Sets the largest number of map cells for which a full table is built. Larger maps
+     * build rows on demand.
+     *
+     * @param maxFullCells the cell limit for the full table
+     */
+    public void setMaxFullCells(int maxFullCells){
+        this.maxFullCells = maxFullCells;
+        passability = null;
+    }
+
+    /**
+     * Sets how many lazily built rows are kept for large maps; the least recently used
+     * row is dropped first.
+     *
+     * @param lazyRows the number of rows to keep
+     */
+    public void setLazyRows(int lazyRows){
+        this.lazyRows = lazyRows;
+    }
+
+    /**
+     * Returns whether the current table holds every row.
+     *
+     * @return {@code true} for a full table, {@code false} for lazily built rows
+     */
+    public boolean isFull(){
+        return fullTable != null;
+    }
+
+    /**
+     * Returns how many rows have been built since the table was created.
+     *
+     * @return the row build count
+     */
+    public long getRowBuilds(){
+        return rowBuilds;
+    }
+
+    public int getCols(){
+        return cols;
+    }
+}
@@ -0,0 +1,500 @@
+package com.game.Characters.EnemyMovement;
+
+import com.game.GamePanel.MainGamePanel;
+import com.game.Tile.TileManager;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A hierarchical path finder (HPA*) for maps much larger than one screen.
+ * <p>
+ * The map is split into square clusters. Where two neighbouring clusters share a stretch
+ * of walkable border, one or two entrances are placed on it: a pair of cells, one on each
+ * side, that are connected by a single step. Within every cluster the distances between
+ * its entrances are computed in advance. A query then only searches locally around the
+ * start and the goal, plus an A* over the small graph of entrances, and only the first
+ * leg of the abstract path, up to the first entrance, is turned into actual steps.
+ * <p>
+ * The entrance graph is kept in sync with the map: when tiles change their passability
+ * only the clusters containing them are rebuilt, together with neighbours whose shared
+ * border changed.
+ */
+public class HierarchicalPathFinder {
+    private static final int INF = Integer.MAX_VALUE / 4;
+    private static final int LONG_ENTRANCE = 6; // border runs at least this long get an entrance at each end
+    private static final byte OPEN = 1;
+    private static final byte CHECKED = 2;
+
+    private final MainGamePanel gamePanel;
+    private final int clusterSize;
+    private int cols, rows, clustersX, clustersY;
+    private BitSet passability;
+    private int mapVersion;
+
+    private int[][] eastBorder, southBorder; // per cluster: pairs {own cell, neighbour cell} of its entrances
+    private int[][] entrances;  // per cluster: its entrance cells
+    private int[][] distances;  // per cluster: k * k distances between its k entrances
+    private int[] entranceSlot; // per cell: index in its cluster's entrances, -1 if it is none
+    private int[] collected = new int[16];
+
+    private int[] gCost, fCost, parent, generation;
+    private byte[] flags;
+    private int searchGeneration = 0;
+    private final CellHeap openList = new CellHeap();
+    private final LocalSearch startSearch, goalSearch, buildSearch;
+    private long clusterRebuilds = 0;
+
+    /**
+     * Creates a hierarchical path finder. The entrance graph is built on the first query.
+     *
+     * @param gamePanel the game panel whose map is searched
+     * @param clusterSize the width and height of a cluster in tiles
+     */
+    public HierarchicalPathFinder(MainGamePanel gamePanel, int clusterSize){
+        this.gamePanel = gamePanel;
+        this.clusterSize = clusterSize;
+        startSearch = new LocalSearch();
+        goalSearch = new LocalSearch();
+        buildSearch = new LocalSearch();
+    }
+
+    /**
+     * Works out the next step from the start towards the goal.
+     *
+     * @param startCol the column of the start tile
+     * @param startRow the row of the start tile
+     * @param goalCol the column of the goal tile
+     * @param goalRow the row of the goal tile
+     * @return the index ({@code row * cols + col}) of the next cell, or {@code -1} if the
+     *         start is the goal or the goal cannot be reached
+     */
+    public int nextStep(int startCol, int startRow, int goalCol, int goalRow){
+        update(gamePanel.tileM);
+        if (!inside(startCol, startRow) || !inside(goalCol, goalRow)) {
+            return -1;
+        }
+        int start = startRow * cols + startCol;
+        int goal = goalRow * cols + goalCol;
+        if (start == goal) {
+            return -1;
+        }
+        int startCluster = clusterOf(start);
+        int goalCluster = clusterOf(goal);
+        startSearch.run(startCluster, start, goal);
+        goalSearch.run(goalCluster, goal, -1);
+
+        if (!abstractSearch(start, goal, startCluster, goalCluster)) {
+            return -1;
+        }
+
+        // walk back to the node the abstract path left the start from
+        int waypoint = goal;
+        int after = -1;
+        while (parent[waypoint] >= 0) {
+            after = waypoint;
+            waypoint = parent[waypoint];
+        }
+        if (waypoint == start) {
+            waypoint = after;
+        }
+        if (clusterOf(waypoint) != startCluster) {
+            return waypoint; // the start is an entrance and the path crosses the border right away
+        }
+        return startSearch.firstStepTowards(waypoint);
+    }
+
+    /**
+     * Searches the entrance graph, with the start connected to the entrances of its cluster
+     * and the goal to the entrances of its own. On success the path can be read backwards
+     * from the goal through {@link #parent}; nodes reached from the start have parent -1.
+     */
+    private boolean abstractSearch(int start, int goal, int startCluster, int goalCluster){
+        searchGeneration++;
+        if (searchGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(generation, 0);
+            searchGeneration = 1;
+        }
+        openList.clear();
+
+        if (startCluster == goalCluster) {
+            relax(goal, startSearch.distance(goal), -1, goal);
+        }
+        for (int entrance : entrances[startCluster]) {
+            relax(entrance, startSearch.distance(entrance), -1, goal);
+        }
+
+        while (true) {
+            int cell = openList.poll();
+            if (cell < 0) {
+                return false;
+            }
+            flags[cell] = CHECKED;
+            if (cell == goal) {
+                return true;
+            }
+            int cluster = clusterOf(cell);
+            int g = gCost[cell];
+            if (cluster == goalCluster) {
+                relax(goal, add(g, goalSearch.distance(cell)), cell, goal);
+            }
+            int[] cells = entrances[cluster];
+            int k = cells.length;
+            int row = entranceSlot[cell] * k;
+            for (int j = 0; j < k; j++) {
+                relax(cells[j], add(g, distances[cluster][row + j]), cell, goal);
+            }
+            int cx = cluster % clustersX;
+            int cy = cluster / clustersX;
+            relaxPartners(eastBorder[cluster], cell, 0, g, goal);
+            relaxPartners(southBorder[cluster], cell, 0, g, goal);
+            if (cx > 0) relaxPartners(eastBorder[cluster - 1], cell, 1, g, goal);
+            if (cy > 0) relaxPartners(southBorder[cluster - clustersX], cell, 1, g, goal);
+        }
+    }
+
+    private void relaxPartners(int[] border, int cell, int side, int g, int goal){
+        for (int i = 0; i < border.length; i += 2) {
+            if (border[i + side] == cell) {
+                relax(border[i + 1 - side], g + 1, cell, goal);
+            }
+        }
+    }
+
+    private void relax(int cell, int g, int from, int goal){
+        if (g >= INF) {
+            return;
+        }
+        if (generation[cell] != searchGeneration) {
+            generation[cell] = searchGeneration;
+            flags[cell] = 0;
+        }
+        if (flags[cell] == CHECKED) {
+            return;
+        }
+        if (flags[cell] != OPEN) {
+            flags[cell] = OPEN;
+            gCost[cell] = g;
+            parent[cell] = from;
+            fCost[cell] = g + heuristic(cell, goal);
+            openList.add(cell);
+        } else if (g < gCost[cell]) {
+            gCost[cell] = g;
+            parent[cell] = from;
+            fCost[cell] = g + heuristic(cell, goal);
+            openList.decreaseKey(cell);
+        }
+    }
+
+    private static int add(int a, int b){
+        return b >= INF ? INF : a + b;
+    }
+
+    private int heuristic(int a, int b){
+        return Math.abs(a % cols - b % cols) + Math.abs(a / cols - b / cols);
+    }
+
+    private boolean inside(int col, int row){
+        return col >= 0 && row >= 0 && col < cols && row < rows;
+    }
+
+    private int clusterOf(int cell){
+        return (cell / cols / clusterSize) * clustersX + (cell % cols / clusterSize);
+    }
+
+    /**
+     * Brings the entrance graph up to date with the map: it is built from scratch for a
+     * map of another size and otherwise repaired for the cells whose passability changed.
+     */
+    private void update(TileManager tileM){
+        if (tileM.getMapCols() != cols || tileM.getMapRows() != rows || passability == null) {
+            allocate(tileM.getMapCols(), tileM.getMapRows());
+            passability = tileM.getPassability();
+            mapVersion = tileM.getMapVersion();
+            boolean[] dirty = new boolean[clustersX * clustersY];
+            Arrays.fill(dirty, true);
+            rebuild(dirty);
+        } else if (tileM.getMapVersion() != mapVersion) {
+            BitSet current = tileM.getPassability();
+            BitSet changed = (BitSet) passability.clone();
+            changed.xor(current);
+            passability = current;
+            mapVersion = tileM.getMapVersion();
+            boolean[] dirty = new boolean[clustersX * clustersY];
+            for (int cell = changed.nextSetBit(0); cell >= 0; cell = changed.nextSetBit(cell + 1)) {
+                dirty[clusterOf(cell)] = true;
+            }
+            rebuild(dirty);
+        }
+    }
+
+    private void allocate(int cols, int rows){
+        this.cols = cols;
+        this.rows = rows;
+        clustersX = (cols + clusterSize - 1) / clusterSize;
+        clustersY = (rows + clusterSize - 1) / clusterSize;
+        int clusters = clustersX * clustersY;
+        eastBorder = new int[clusters][0];
+        southBorder = new int[clusters][0];
+        entrances = new int[clusters][0];
+        distances = new int[clusters][0];
+        int cells = cols * rows;
+        entranceSlot = new int[cells];
+        Arrays.fill(entranceSlot, -1);
+        gCost = new int[cells];
+        fCost = new int[cells];
+        parent = new int[cells];
+        generation = new int[cells];
+        flags = new byte[cells];
+        openList.setGrid(cells, fCost, gCost);
+        searchGeneration = 0;
+    }
+
+    /**
+     * Recomputes the borders of the dirty clusters, then the entrances and distances of the
+     * dirty clusters and of every neighbour whose shared border changed.
+     */
+    private void rebuild(boolean[] dirty){
+        boolean[] affected = dirty.clone();
+        for (int cluster = 0; cluster < dirty.length; cluster++) {
+            if (!dirty[cluster]) continue;
+            int cx = cluster % clustersX;
+            int cy = cluster / clustersX;
+            if (cx + 1 < clustersX && updateBorder(eastBorder, cluster, true)) affected[cluster + 1] = true;
+            if (cy + 1 < clustersY && updateBorder(southBorder, cluster, false)) affected[cluster + clustersX] = true;
+            if (cx > 0 && updateBorder(eastBorder, cluster - 1, true)) affected[cluster - 1] = true;
+            if (cy > 0 && updateBorder(southBorder, cluster - clustersX, false)) affected[cluster - clustersX] = true;
+        }
+        for (int cluster = 0; cluster < affected.length; cluster++) {
+            if (affected[cluster]) {
+                rebuildCluster(cluster);
+            }
+        }
+    }
+
+    /**
+     * Places the entrances on the east or south border of a cluster.
+     *
+     * @return {@code true} if the entrances differ from the ones placed before
+     */
+    private boolean updateBorder(int[][] borders, int cluster, boolean east){
+        int cx = cluster % clustersX;
+        int cy = cluster / clustersX;
+        int x0 = cx * clusterSize;
+        int y0 = cy * clusterSize;
+        // the border runs along a line of cells inside the cluster, the neighbour's cells are one step across
+        int length = east ? Math.min(clusterSize, rows - y0) : Math.min(clusterSize, cols - x0);
+        int first = east ? y0 * cols + Math.min(x0 + clusterSize, cols) - 1 : (Math.min(y0 + clusterSize, rows) - 1) * cols + x0;
+        int along = east ? cols : 1;
+        int across = east ? 1 : cols;
+
+        int[] pairs = new int[8];
+        int count = 0;
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean open = i < length && passability.get(first + i * along) && passability.get(first + i * along + across);
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int runLength = i - runStart;
+                if (count + 4 > pairs.length) pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                if (runLength < LONG_ENTRANCE) {
+                    int cell = first + (runStart + runLength / 2) * along;
+                    pairs[count++] = cell;
+                    pairs[count++] = cell + across;
+                } else {
+                    int cell = first + runStart * along;
+                    pairs[count++] = cell;
+                    pairs[count++] = cell + across;
+                    cell = first + (i - 1) * along;
+                    pairs[count++] = cell;
+                    pairs[count++] = cell + across;
+                }
+                runStart = -1;
+            }
+        }
+        int[] border = Arrays.copyOf(pairs, count);
+        boolean changed = !Arrays.equals(border, borders[cluster]);
+        borders[cluster] = border;
+        return changed;
+    }
+
+    /**
+     * Collects the entrances of a cluster from its four borders and computes the distances
+     * between them with one breadth-first search inside the cluster per entrance.
+     */
+    private void rebuildCluster(int cluster){
+        for (int cell : entrances[cluster]) {
+            entranceSlot[cell] = -1;
+        }
+        int cx = cluster % clustersX;
+        int cy = cluster / clustersX;
+        int k = 0;
+        k = collect(eastBorder[cluster], 0, k);
+        k = collect(southBorder[cluster], 0, k);
+        if (cx > 0) k = collect(eastBorder[cluster - 1], 1, k);
+        if (cy > 0) k = collect(southBorder[cluster - clustersX], 1, k);
+        int[] cells = Arrays.copyOf(collected, k);
+        for (int i = 0; i < k; i++) {
+            entranceSlot[cells[i]] = i;
+        }
+
+        int[] dist = new int[k * k];
+        for (int i = 0; i < k; i++) {
+            buildSearch.run(cluster, cells[i], -1);
+            for (int j = 0; j < k; j++) {
+                dist[i * k + j] = buildSearch.distance(cells[j]);
+            }
+        }
+        entrances[cluster] = cells;
+        distances[cluster] = dist;
+        clusterRebuilds++;
+    }
+
+    /**
+     * Adds the cells on one side of a border's entrance pairs to {@link #collected}.
+     *
+     * @return the number of cells collected so far
+     */
+    private int collect(int[] border, int side, int k){
+        for (int i = side; i < border.length; i += 2) {
+            int cell = border[i];
+            boolean seen = false;
+            for (int j = 0; j < k && !seen; j++) {
+                seen = collected[j] == cell; // a corner cell can be an entrance on two borders
+            }
+            if (!seen) {
+                if (k == collected.length) {
+                    collected = Arrays.copyOf(collected, k * 2);
+                }
+                collected[k++] = cell;
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Returns how many times a cluster's entrances and distances have been computed.
+     *
+     * @return the number of cluster rebuilds since this path finder was created
+     */
+    public long getClusterRebuilds(){
+        return clusterRebuilds;
+    }
+
+    /**
+     * Returns the number of entrance cells over all clusters, i.e. the size of the
+     * abstract graph.
+     *
+     * @return the entrance count, {@code 0} before the first query
+     */
+    public int getEntranceCount(){
+        int count = 0;
+        if (entrances != null) {
+            for (int[] cells : entrances) {
+                count += cells.length;
+            }
+        }
+        return count;
+    }
+
+    public int getClusterSize(){
+        return clusterSize;
+    }
+
+    /**
+     * A breadth-first search from one cell that stays inside one cluster. Its arrays are
+     * the size of a cluster, not of the map.
+     */
+    private final class LocalSearch {
+        private final int[] dist = new int[clusterSize * clusterSize];
+        private final int[] from = new int[clusterSize * clusterSize];
+        private final int[] stamp = new int[clusterSize * clusterSize];
+        private final int[] queue = new int[clusterSize * clusterSize];
+        private int run = 0;
+        private int x0, y0, width, height, source;
+
+        /**
+         * Searches from a cell over the walkable cells of a cluster. The accepted cell, if
+         * it lies in the cluster, can be reached even when it is not walkable.
+         */
+        void run(int cluster, int source, int accept){
+            run++;
+            if (run == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                run = 1;
+            }
+            this.source = source;
+            x0 = (cluster % clustersX) * clusterSize;
+            y0 = (cluster / clustersX) * clusterSize;
+            width = Math.min(clusterSize, cols - x0);
+            height = Math.min(clusterSize, rows - y0);
+
+            int local = local(source);
+            stamp[local] = run;
+            dist[local] = 0;
+            from[local] = -1;
+            int head = 0, tail = 0;
+            queue[tail++] = local;
+            while (head < tail) {
+                int current = queue[head++];
+                int lx = current % width;
+                int ly = current / width;
+                if (ly > 0) tail = visit(current, current - width, accept, tail);
+                if (lx > 0) tail = visit(current, current - 1, accept, tail);
+                if (ly + 1 < height) tail = visit(current, current + width, accept, tail);
+                if (lx + 1 < width) tail = visit(current, current + 1, accept, tail);
+            }
+        }
+
+        private int visit(int current, int next, int accept, int tail){
+            if (stamp[next] == run) {
+                return tail;
+            }
+            int cell = global(next);
+            if (cell != accept && !passability.get(cell)) {
+                return tail;
+            }
+            stamp[next] = run;
+            dist[next] = dist[current] + 1;
+            from[next] = current;
+            queue[tail] = next;
+            return tail + 1;
+        }
+
+        /**
+         * Returns the number of steps from the source to a cell, {@link #INF} if the cell
+         * lies outside the cluster or cannot be reached inside it.
+         */
+        int distance(int cell){
+            int col = cell % cols - x0;
+            int row = cell / cols - y0;
+            if (col < 0 || row < 0 || col >= width || row >= height) {
+                return INF;
+            }
+            int local = row * width + col;
+            return stamp[local] == run ? dist[local] : INF;
+        }
+
+        /**
+         * Returns the first cell after the source on the way to a reached cell.
+         */
+        int firstStepTowards(int cell){
+            int local = local(cell);
+            int first = local;
+            while (from[local] >= 0) {
+                first = local;
+                local = from[local];
+            }
+            return global(first);
+        }
+
+        private int local(int cell){
+            return (cell / cols - y0) * width + (cell % cols - x0);
+        }
+
+        private int global(int local){
+            return (y0 + local / width) * cols + x0 + local % width;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.game.Characters.EnemyMovement;
+
+import com.game.GamePanel.MainGamePanel;
+
+/**
+ * A {@link PathFinder} that uses Jump Point Search on the four-way grid.
+ * <p>
+ * Every step costs the same, so most open cells lie in the middle of a straight corridor
+ * that leads nowhere new. Instead of opening each of them, the search jumps along a
+ * direction until it reaches a jump point: the goal, or a cell next to a wall corner where
+ * a new way opens to the side. Only jump points go on the open heap, which keeps the heap
+ * small on maps with long open corridors. The jumps follow the rules for grids without
+ * diagonal moves: a vertical jump also stops where a horizontal jump from the cell would
+ * find a jump point.
+ * <p>
+ * The cells between two jump points are filled back in by {@link #trackThePath()}, so the
+ * path in {@link #pathList} has one node per step, just like the one from {@link PathFinder}.
+ */
+public class JumpPointFinder extends PathFinder {
+
+    public JumpPointFinder(MainGamePanel gamePanel){
+        super(gamePanel);
+    }
+
+    /**
+     * Creates a Jump Point finder that belongs to no game panel; see {@link PathFinder#PathFinder()}.
+     */
+    public JumpPointFinder(){
+        super();
+    }
+
+    /**
+     * Jumps from a cell in the directions that are not pruned and opens the jump points found.
+     * <p>
+     * From the start every direction is tried. Any other cell was reached by a straight
+     * jump from its parent, so the search keeps going in that direction and turns to both
+     * sides, but never goes back.
+     *
+     * @param cell the index of the current cell
+     */
+    @Override
+    void expand(int cell){
+        int col = cell % cols;
+        int row = cell / cols;
+
+        if (cell == startCell) {
+            jumpFrom(cell, col, row - 1, 0, -1);
+            jumpFrom(cell, col - 1, row, -1, 0);
+            jumpFrom(cell, col, row + 1, 0, 1);
+            jumpFrom(cell, col + 1, row, 1, 0);
+            return;
+        }
+
+        int dx = Integer.signum(col - parent[cell] % cols);
+        int dy = Integer.signum(row - parent[cell] / cols);
+        if (dx != 0) {
+            jumpFrom(cell, col, row - 1, 0, -1);
+            jumpFrom(cell, col, row + 1, 0, 1);
+            jumpFrom(cell, col + dx, row, dx, 0);
+        } else {
+            jumpFrom(cell, col - 1, row, -1, 0);
+            jumpFrom(cell, col + 1, row, 1, 0);
+            jumpFrom(cell, col, row + dy, 0, dy);
+        }
+    }
+
+    /**
+     * Jumps from the neighbour of a cell and opens the jump point found, if any, with the
+     * length of the straight line to it as its additional cost.
+     */
+    private void jumpFrom(int cell, int col, int row, int dx, int dy){
+        int jumpPoint = dx != 0 ? jumpHorizontal(col, row, dx) : jumpVertical(col, row, dy);
+        if (jumpPoint >= 0) {
+            int distance = Math.abs(jumpPoint % cols - cell % cols) + Math.abs(jumpPoint / cols - cell / cols);
+            openNode(jumpPoint, gCost[cell] + distance);
+        }
+    }
+
+    /**
+     * Walks along a row until a jump point is found.
+     *
+     * @return the index of the jump point, or {@code -1} if the walk runs into a wall
+     */
+    private int jumpHorizontal(int col, int row, int dx){
+        while (walkable(col, row)) {
+            int cell = row * cols + col;
+            if (cell == goalCell) {
+                return cell;
+            }
+            if ((walkable(col, row - 1) && !walkable(col - dx, row - 1))
+                    || (walkable(col, row + 1) && !walkable(col - dx, row + 1))) {
+                return cell;
+            }
+            col += dx;
+        }
+        return -1;
+    }
+
+    /**
+     * Walks along a column until a jump point is found. A cell from which a horizontal
+     * jump finds a jump point is a jump point too.
+     *
+     * @return the index of the jump point, or {@code -1} if the walk runs into a wall
+     */
+    private int jumpVertical(int col, int row, int dy){
+        while (walkable(col, row)) {
+            int cell = row * cols + col;
+            if (cell == goalCell) {
+                return cell;
+            }
+            if ((walkable(col - 1, row) && !walkable(col - 1, row - dy))
+                    || (walkable(col + 1, row) && !walkable(col + 1, row - dy))) {
+                return cell;
+            }
+            if (jumpHorizontal(col + 1, row, 1) >= 0 || jumpHorizontal(col - 1, row, -1) >= 0) {
+                return cell;
+            }
+            row += dy;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether a cell can be stepped on. As in {@link #openNode(int)}, the goal cell
+     * is always accepted.
+     */
+    private boolean walkable(int col, int row){
+        if (col < 0 || row < 0 || col >= cols || row >= rows) {
+            return false;
+        }
+        return row * cols + col == goalCell || map.isPassable(col, row);
+    }
+
+    /**
+     * Traces back the jump points from the goal to the start and fills in the cells
+     * between them, so every step of the path is stored, start excluded, in start-to-goal
+     * order.
+     */
+    @Override
+    public void trackThePath(){
+        int length = gCost[goalCell];
+        if (path.length < length) {
+            path = new int[Math.max(length, path.length * 2)];
+        }
+        pathLength = length;
+        for (int cell = goalCell; cell != startCell; cell = parent[cell]) {
+            int from = parent[cell];
+            int stride = cell % cols != from % cols ? 1 : cols;
+            int direction = cell > from ? stride : -stride;
+            for (int c = cell; c != from; c -= direction) {
+                path[--length] = c;
+            }
+        }
+    }
+}
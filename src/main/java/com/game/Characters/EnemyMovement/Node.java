@@ -1,25 +1,18 @@
 package com.game.Characters.EnemyMovement;
 
 /**
- * Represents a single node in the grid for pathfinding purposes.
+ * Represents a single cell of the grid on a path found by the {@link PathFinder}.
  * <p>
- * Each {@code Node} corresponds to a specific location in the game environment
- * grid and holds information relevant to the pathfinding algorithm, including
- * its position, pathfinding costs, and state. It is used by the {@link PathFinder}
- * to determine and track the shortest path between two points.
+ * The pathfinding state itself (costs, parents, open and checked flags) lives in flat
+ * arrays inside the {@link PathFinder}; a {@code Node} is only the column and row of one
+ * step, handed out by {@link PathFinder#pathList}.
  *
  */
 public class Node {
-    Node parent;
     public int col,row;
-    int gCost,hCost,fCost;
-    boolean solid,open,checked;
 
     /**
      * Constructs a {@code Node} with specified grid coordinates.
-     * <p>
-     * Initializes a node with the given column and row indices. Pathfinding
-     * costs and state flags are set to their default values.
      *
      * @param col the column index of this node in the grid
      * @param row the row index of this node in the grid
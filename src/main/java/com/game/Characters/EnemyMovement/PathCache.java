@@ -0,0 +1,128 @@
+package com.game.Characters.EnemyMovement;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Remembers the last path a character planned so it is not searched again every frame.
+ * <p>
+ * An entry is keyed on the goal tile and the map version it was planned for. As long as
+ * both are unchanged and the character is still standing on the path (at its start or on
+ * one of its cells), the rest of the path is reused and the next step is returned without
+ * a search. Hits and misses of all caches are counted together so the hit rate can be
+ * checked while the game is running.
+ */
+public class PathCache {
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private int[] cells = new int[0];
+    private int length = 0;
+    private int position = -1; // index of the path cell the character stands on, -1 for the start
+    private int startCell = -1, goalCell = -1;
+    private int mapVersion;
+    private int cols;
+
+    /**
+     * Looks up the next step of the cached path.
+     *
+     * @param startCol the column the character is standing on
+     * @param startRow the row the character is standing on
+     * @param goalCol the column of the goal
+     * @param goalRow the row of the goal
+     * @param mapVersion the current map version
+     * @return the index ({@code row * cols + col}) of the next cell, or {@code -1} on a miss
+     */
+    public int nextStep(int startCol, int startRow, int goalCol, int goalRow, int mapVersion){
+        int start = startRow * cols + startCol;
+        if (length > 0 && this.mapVersion == mapVersion && goalRow * cols + goalCol == goalCell) {
+            if (position + 1 < length && cells[position + 1] == start) {
+                position++; // the character moved on to the next cell of the path
+            }
+            int current = position < 0 ? startCell : cells[position];
+            if (current == start && position + 1 < length) {
+                hits.incrementAndGet();
+                return cells[position + 1];
+            }
+        }
+        misses.incrementAndGet();
+        return -1;
+    }
+
+    /**
+     * Stores the path the given path finder just found.
+     *
+     * @param pathFinder the {@link PathFinder} whose last search succeeded
+     * @param startCol the column the path starts from
+     * @param startRow the row the path starts from
+     * @param mapVersion the map version the path was planned for
+     */
+    public void store(PathFinder pathFinder, int startCol, int startRow, int mapVersion){
+        store(pathFinder.getPathLength(), pathFinder::getPathCell, pathFinder.getCols(), startCol, startRow, mapVersion);
+    }
+
+    /**
+     * Stores the path of a search that ran on a {@link PathfindingService} worker.
+     *
+     * @param result the finished search
+     */
+    public void store(PathfindingService.Result result){
+        store(result.getPathLength(), result::getPathCell, result.getCols(),
+                result.getStartCol(), result.getStartRow(), result.getMapVersion());
+    }
+
+    /**
+     * Copies a path into the cache and starts following it from its start cell.
+     *
+     * @param length the number of path cells, start excluded
+     * @param cell returns the index of the path cell at a position of the path
+     * @param cols the number of columns of the map the path was planned on
+     * @param startCol the column the path starts from
+     * @param startRow the row the path starts from
+     * @param mapVersion the map version the path was planned for
+     */
+    private void store(int length, IntUnaryOperator cell, int cols, int startCol, int startRow, int mapVersion){
+        this.length = length;
+        if (cells.length < length) {
+            cells = new int[Math.max(length, cells.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            cells[i] = cell.applyAsInt(i);
+        }
+        this.cols = cols;
+        startCell = startRow * cols + startCol;
+        goalCell = length > 0 ? cells[length - 1] : -1;
+        position = -1;
+        this.mapVersion = mapVersion;
+    }
+
+    /**
+     * Forgets the cached path.
+     */
+    public void clear(){
+        length = 0;
+        position = -1;
+    }
+
+    public int getCols(){return cols;}
+
+    public static long getHits(){return hits.get();}
+
+    public static long getMisses(){return misses.get();}
+
+    /**
+     * Returns the share of lookups that were answered from a cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if nothing was looked up yet
+     */
+    public static double getHitRate(){
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public static void resetStatistics(){
+        hits.set(0);
+        misses.set(0);
+    }
+}
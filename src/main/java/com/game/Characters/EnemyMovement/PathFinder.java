@@ -2,81 +2,133 @@ package com.game.Characters.EnemyMovement;
 
 import com.game.Characters.Character;
 import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.ScreenSetting;
+import com.game.Tile.PassabilitySnapshot;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Provides functionality to find paths for enemies in a game environment.
  * <p>
  * The {@code PathFinder} class uses a grid-based approach to determine
  * the shortest path for an enemy character from a starting point to a goal
- * point considering obstacles and terrain costs. This class relies on a
- * simplified A* (A-Star) pathfinding algorithm and is specifically tailored
+ * point considering obstacles and terrain costs. This class relies on the
+ * A* (A-Star) pathfinding algorithm and is specifically tailored
  * for use within a {@link MainGamePanel} context.
+ * <p>
+ * The search state is kept in flat primitive arrays indexed by {@code row * cols + col}
+ * rather than in one object per cell, so a search walks over a few contiguous arrays and
+ * allocates nothing.
  *
  */
 public class PathFinder {
+    static final byte OPEN = 1;
+    static final byte CHECKED = 2;
+
     MainGamePanel gamePanel;
-    public Node[][] node;
-    ArrayList<Node> openList = new ArrayList<>();
-    public ArrayList<Node> pathList = new ArrayList<>();
-    Node startNode, goalNode, currentNode;
+    PassabilitySnapshot map; // the passability the current search runs on
+    int cols, rows;
+    int[] gCost, fCost, parent, generation;
+    byte[] flags;
+    CellHeap openList = new CellHeap();
+    int[] path = new int[64];
+    int pathLength = 0;
+    public List<Node> pathList = new PathView();
+    int startCell, goalCell, goalCol, goalRow, currentCell;
     public boolean goalReached = false;
+    boolean exhausted = false;
     int step = 0;
+    int stepLimit;
+    int searchGeneration = 0;
 
     public PathFinder(MainGamePanel gamePanel){
         this.gamePanel = gamePanel;
-        instantiateNode();
+        instantiateNode(gamePanel.maxScreenCol, gamePanel.maxScreeRow);
     }
 
     /**
-     * Instantiates grid nodes based on the dimensions provided by the {@link MainGamePanel}.
-     * <p>
-     * This method creates a grid of {@link Node} objects that represent possible
-     * positions in the game environment. Each node is initialized with its grid
-     * coordinates but without any pathfinding costs or state.
+     * Creates a path finder that belongs to no game panel. It only searches maps passed to
+     * {@link #setNode(PassabilitySnapshot, int, int, int, int)}, so it can run on a thread
+     * other than the game loop.
      */
-    public void instantiateNode(){
-        node = new Node[gamePanel.maxScreenCol][gamePanel.maxScreeRow];
+    public PathFinder(){
+        instantiateNode(ScreenSetting.maxScreenCol, ScreenSetting.maxScreeRow);
+    }
 
-        for (int r = 0; r < gamePanel.maxScreeRow; r++) {
-            for (int c = 0; c < gamePanel.maxScreenCol; c++) {
-                node[c][r] = new Node(c, r);
-            }
-        }
+    /**
+     * Allocates the pathfinding arrays for a grid of the given size.
+     * <p>
+     * Every cell gets one slot in each array: its G and F costs, the index of its parent
+     * cell, its open/checked flags and the search generation those values belong to.
+     * The step limit of {@link #search()} grows with the grid, so large maps are not cut off
+     * before every cell could be checked.
+     *
+     * @param cols the number of columns of the map
+     * @param rows the number of rows of the map
+     */
+    public void instantiateNode(int cols, int rows){
+        this.cols = cols;
+        this.rows = rows;
+        int cells = cols * rows;
+        gCost = new int[cells];
+        fCost = new int[cells];
+        parent = new int[cells];
+        generation = new int[cells];
+        flags = new byte[cells];
+        openList.setGrid(cells, fCost, gCost);
+        stepLimit = Math.max(8000, cells);
+        searchGeneration = 0;
     }
 
     /**
      * Resets the pathfinding grid and state for a new pathfinding operation.
      * <p>
-     * All nodes are reset to their initial state, clearing any previous pathfinding
-     * data such as costs and parent nodes. Additionally, the open and path lists
-     * are cleared, and pathfinding state variables are reinitialized.
+     * Instead of clearing every cell, the search generation is advanced. A cell whose
+     * generation differs from the current one is treated as untouched the next time the
+     * search reaches it (see {@link #touch(int)}), so the reset costs the same no matter
+     * how large the grid is. The open heap and path list are cleared, and pathfinding
+     * state variables are reinitialized.
      */
     public  void resetNodes(){
 
-        for (int r = 0; r < gamePanel.maxScreeRow; r++) {
-            for (int c = 0; c < gamePanel.maxScreenCol; c++) {
-                node[c][r].open = false;
-                node[c][r].checked = false;
-                node[c][r].solid = false;
-            }
+        searchGeneration++;
+        if (searchGeneration == Integer.MAX_VALUE) {
+            // the counter wrapped around: stamps from long ago could look current again
+            Arrays.fill(generation, 0);
+            searchGeneration = 1;
         }
 
         openList.clear();
-        pathList.clear();
+        pathLength = 0;
         goalReached = false;
+        exhausted = false;
         step = 0;
 
     }
 
     /**
-     * Prepares the pathfinding grid with starting and goal nodes and updates node states.
+     * Brings a cell into the current search generation.
+     * <p>
+     * The flags of a cell left over from an earlier search are cleared the first time
+     * the current search looks at it.
+     *
+     * @param cell the index of the cell about to be read or updated by the search
+     */
+    void touch(int cell){
+        if (generation[cell] != searchGeneration) {
+            generation[cell] = searchGeneration;
+            flags[cell] = 0;
+        }
+    }
+
+    /**
+     * Prepares the pathfinding grid with starting and goal nodes on the game panel's
+     * current map.
      * <p>
-     * This method sets the starting and goal nodes based on provided coordinates
-     * and updates the grid to reflect obstacles and terrain costs by analyzing
-     * the game environment. It marks nodes as solid (impassable) if they correspond
-     * to obstacles in the game environment.
+     * The search runs on the {@link PassabilitySnapshot} the tile manager holds for the
+     * current map version; see {@link #setNode(PassabilitySnapshot, int, int, int, int)}.
      *
      * @param startCol the column index of the start node
      * @param startRow the row index of the start node
@@ -85,161 +137,266 @@ public class PathFinder {
      * @param character the {@link Character} for which the path is being found
      */
     public void setNode(int startCol, int startRow, int goalCol, int goalRow, Character character) {
-        resetNodes();
-
-        startNode = node[startCol][startRow];
-        currentNode = startNode;
-        goalNode = node[goalCol][goalRow];
-        openList.add(currentNode);
-
-        for (int r = 0; r < gamePanel.maxScreeRow; r++) {
-            for (int c = 0; c < gamePanel.maxScreenCol; c++) {
-                int tileNum = gamePanel.tileM.getMapTileNum()[c][r];
-//                if (gamePanel.tileM.getTile()[tileNum].getCollisionOn()) {
-//                    node[c][r].solid = true;
-//                    System.out.println("check");
-//                }
-
-                getCost(node[c][r]);
-            }
-        }
+        setNode(gamePanel.tileM.snapshotPassability(), startCol, startRow, goalCol, goalRow);
     }
 
     /**
-     * Calculates and updates the pathfinding costs for a given node.
+     * Prepares the pathfinding grid with starting and goal nodes.
      * <p>
-     * This method computes the G, H, and F costs of a node. The G cost represents
-     * the distance from the start node, and the H cost represents the heuristic
-     * estimated distance to the goal node. The F cost is the sum of G and H costs,
-     * used to determine the node's priority in pathfinding.
+     * This method sets the starting and goal cells based on provided coordinates and puts
+     * the start cell on the open heap. No other cell is touched here: costs are computed
+     * when a cell is first reached during {@link #search()}, and obstacles are read from the
+     * given passability snapshot, which does not change while the search runs. The arrays
+     * are reallocated when the map has a different size than the grid.
      *
-     * @param node the {@link Node} for which costs are calculated
+     * @param map the passability of the map to search
+     * @param startCol the column index of the start node
+     * @param startRow the row index of the start node
+     * @param goalCol the column index of the goal node
+     * @param goalRow the row index of the goal node
      */
-    public void getCost(Node node){
+    public void setNode(PassabilitySnapshot map, int startCol, int startRow, int goalCol, int goalRow) {
+        this.map = map;
+        if (map.getCols() != cols || map.getRows() != rows) {
+            instantiateNode(map.getCols(), map.getRows());
+        }
+        resetNodes();
 
-        int xDistance = Math.abs(node.col-startNode.col);
-        int yDistance = Math.abs(node.row-startNode.row);
-        node.gCost = xDistance + yDistance;
+        this.goalCol = goalCol;
+        this.goalRow = goalRow;
+        startCell = startRow * cols + startCol;
+        goalCell = goalRow * cols + goalCol;
+        currentCell = startCell;
+
+        touch(startCell);
+        gCost[startCell] = 0;
+        getCost(startCell);
+        flags[startCell] = OPEN;
+        openList.add(startCell);
+    }
 
-//        xDistance = Math.abs(node.col-startNode.col);
-//        yDistance = Math.abs(node.row-startNode.row);
-        xDistance = Math.abs(node.col-goalNode.col);
-        yDistance = Math.abs(node.row-goalNode.row);
-        node.hCost = xDistance + yDistance;
+    /**
+     * Calculates and updates the pathfinding costs for a given cell.
+     * <p>
+     * The G cost of the cell must already hold the length of the best known path from the
+     * start. This method adds the H cost, the Manhattan distance to the goal, to get the
+     * F cost used to determine the cell's priority in pathfinding.
+     *
+     * @param cell the index of the cell for which costs are calculated
+     */
+    public void getCost(int cell){
 
-        node.fCost = node.gCost + node.hCost;
+        int xDistance = Math.abs(cell % cols - goalCol);
+        int yDistance = Math.abs(cell / cols - goalRow);
+        fCost[cell] = gCost[cell] + xDistance + yDistance;
 
     }
 
     /**
      * Executes the pathfinding search to find the shortest path to the goal.
      * <p>
-     * This method iterates through available nodes, expanding paths and assessing
-     * costs to determine the most efficient route to the goal. It utilizes A* search
-     * algorithm principles, considering both the traveled distance and an estimate
-     * of the distance to the goal. The search terminates either when the goal is reached
-     * or a specified step limit is exceeded.
+     * This is an A* search: each step takes the open cell with the lowest F cost from
+     * the {@link CellHeap}, marks it checked and relaxes its four neighbours, lowering
+     * their G cost when a shorter path through the current cell is found. Because the
+     * Manhattan heuristic never overestimates on a four-way grid, the first time the goal
+     * is taken from the heap its path is a shortest one. The search terminates either
+     * when the goal is reached, no open cell is left, or a specified step limit is exceeded.
      *
      * @return {@code true} if a path to the goal was found, {@code false} otherwise
+     *         (including when the start already is the goal and no step is needed)
      */
     public boolean search() {
 
-        while (!goalReached && step < 8000) { ///temp original: 500
-            int col = currentNode.col;
-            int row = currentNode.row;
-
-            currentNode.checked = true;
-            openList.remove(currentNode);
-
-            if (row - 1 >= 0) {
-                openNode(node[col][row - 1]);
+        resume(stepLimit);
+        return goalReached;
+    }
 
-            }
-            if (col - 1 >= 0) {
-                openNode(node[col - 1][row]);
+    /**
+     * Continues the search set up by {@link #setNode} for at most the given number of steps.
+     * <p>
+     * All search state lives in the path finder's arrays, so a search can be split over
+     * several calls, for example a few hundred steps per frame. Calling this until it
+     * returns {@code true} gives the same result as one call to {@link #search()}.
+     *
+     * @param maxSteps the number of cells that may be checked in this call
+     * @return {@code true} once the search is finished; {@link #goalReached} then tells
+     *         whether a path was found
+     */
+    public boolean resume(int maxSteps) {
 
-            }
-            if (row + 1 < gamePanel.maxScreeRow) {
-                openNode(node[col][row + 1]);
+        if (startCell == goalCell) {
+            return true;
+        }
 
+        int limit = (int) Math.min(stepLimit, (long) step + maxSteps);
+        while (!goalReached && step < limit) { ///temp original: 500
+            //if there is no cell in the open heap, end the loop
+            currentCell = openList.poll();
+            if (currentCell < 0) {
+                exhausted = true;
+                break;
             }
-            if (col + 1 < gamePanel.maxScreenCol) {
-                openNode(node[col + 1][row]);
+            flags[currentCell] = CHECKED;
 
+            if (currentCell == goalCell) {
+                goalReached = true;
+                trackThePath();
+                break;
             }
 
-            //find best node
-            int bestNodeIndex = 0;
-            int bestNodeCost = 999;
+            expand(currentCell);
 
-            for (int i = 0; i < openList.size(); i++) {
-                //check if this node's f cost is better
-                if (openList.get(i).fCost < bestNodeCost) {
-                    bestNodeIndex = i;
-                    bestNodeCost = openList.get(i).fCost;
-                }
+            step++;
 
-                  //if f cost is equal, check the g cost
-//                } else if (openList.get(i).fCost == bestNodeCost) {
-//                    if (openList.get(i).gCost < openList.get(bestNodeIndex).gCost) {
-//                        bestNodeIndex = i;
-//                    }
-//                }
+        }
+        return goalReached || exhausted || step >= stepLimit;
+    }
 
-            }
-            //if there is no node in the openlist, end the loop
-            if (openList.isEmpty()) {
-                break;
-            }
+    /**
+     * Opens the successors of a cell just taken from the open heap, here its four
+     * neighbours.
+     *
+     * @param cell the index of the current cell
+     */
+    void expand(int cell){
+        int col = cell % cols;
+        int row = cell / cols;
 
-            //after the loop, openList[bestNodeIndex] is the next step => currentNode
-            currentNode = openList.get(bestNodeIndex);
+        if (row - 1 >= 0) {
+            openNode(cell - cols);
 
-            if (currentNode == goalNode) {
-                goalReached = true;
-                trackThePath();
+        }
+        if (col - 1 >= 0) {
+            openNode(cell - 1);
 
-            }
+        }
+        if (row + 1 < rows) {
+            openNode(cell + cols);
 
-            step++;
+        }
+        if (col + 1 < cols) {
+            openNode(cell + 1);
 
         }
-        return goalReached;
     }
 
     /**
-     * Traces back the path from the goal node to the start node.
+     * Traces back the path from the goal cell to the start cell.
      * <p>
-     * After reaching the goal, this method retraces the steps taken to reach the
-     * goal node from the start node. The path is reconstructed by following the parent
-     * nodes from the goal to the start, effectively mapping the path taken.
+     * After reaching the goal, this method follows the parent cells from the goal back to
+     * the start and stores the steps, start excluded, in start-to-goal order.
      *
      */
     public void trackThePath(){
-         Node current = goalNode;
-         while(current != startNode){
-             pathList.add(0,current);
-             current = current.parent;
-         }
+        int length = 0;
+        for (int cell = goalCell; cell != startCell; cell = parent[cell]) {
+            length++;
+        }
+        if (path.length < length) {
+            path = new int[Math.max(length, path.length * 2)];
+        }
+        pathLength = length;
+        for (int cell = goalCell; cell != startCell; cell = parent[cell]) {
+            path[--length] = cell;
+        }
     }
 
     /**
-     * Marks a node as open if it is not already opened, checked, or solid.
+     * Opens or relaxes a neighbour of the current cell.
      * <p>
-     * This method adds a node to the open list if it is traversable (not solid),
-     * has not been checked, and is not already in the open list. Each opened node's
-     * parent is set to the current node to track the path's progression.
+     * Solid and already checked cells are skipped. The goal cell is always accepted, so the
+     * enemy still heads for the hero when the hero's tile is reported as not steppable.
+     * A cell reached for the first time is added to the open heap; a cell that is already
+     * open gets a new parent and a lower cost when the path through the current cell is
+     * shorter than the one it was opened with.
      *
-     * @param node the {@link Node} to be opened
+     * @param cell the index of the cell to be opened
      */
-    public void openNode(Node node){
-        if (!node.open && !node.checked && !node.solid) {
-            node.open = true;
-            node.parent = currentNode;
-            openList.add(node);
+    public void openNode(int cell){
+        if (cell != goalCell && !map.isPassable(cell % cols, cell / cols)) {
+            return;
         }
+        openNode(cell, gCost[currentCell] + 1);
     }
 
-}
+    /**
+     * Opens or relaxes a cell reached from the current cell with the given G cost.
+     * <p>
+     * The cell must be walkable; checked cells are skipped.
+     *
+     * @param cell the index of the cell to be opened
+     * @param g the length of the path to the cell through the current cell
+     */
+    void openNode(int cell, int g){
+        touch(cell);
+        if (flags[cell] == CHECKED) {
+            return;
+        }
+        if (flags[cell] != OPEN) {
+            flags[cell] = OPEN;
+            parent[cell] = currentCell;
+            gCost[cell] = g;
+            getCost(cell);
+            openList.add(cell);
+        } else if (g < gCost[cell]) {
+            parent[cell] = currentCell;
+            gCost[cell] = g;
+            getCost(cell);
+            openList.decreaseKey(cell);
+        }
+    }
 
+    /**
+     * Returns the number of steps of the last path found.
+     *
+     * @return the path length, {@code 0} if no path was found
+     */
+    public int getPathLength(){
+        return pathLength;
+    }
+
+    /**
+     * Returns the cell index ({@code row * cols + col}) of one step of the last path found.
+     *
+     * @param i the step, {@code 0} being the first cell after the start
+     * @return the index of the cell
+     */
+    public int getPathCell(int i){
+        return path[i];
+    }
+
+    public int getCols(){
+        return cols;
+    }
+
+    /**
+     * Returns the number of cells checked by the current search so far.
+     *
+     * @return the step count
+     */
+    public int getStep(){
+        return step;
+    }
 
+    /**
+     * A read-only {@link List} view of the last path found, one {@link Node} per step.
+     * <p>
+     * Nodes are created on demand from the path array, so nothing is allocated per cell
+     * of the grid or per search.
+     */
+    private class PathView extends AbstractList<Node> {
+        @Override
+        public Node get(int i){
+            if (i < 0 || i >= pathLength) {
+                throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + pathLength);
+            }
+            return new Node(path[i] % cols, path[i] / cols);
+        }
+
+        @Override
+        public int size(){
+            return pathLength;
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.game.Characters.EnemyMovement;
+
+/**
+ * The ways an {@link com.game.Characters.Enemy} can work out its next step towards the hero.
+ */
+public enum PathMode {
+    /** Plan a full path with the shared {@link PathFinder} every time the enemy acts. */
+    A_STAR,
+    /** Plan a full path with the shared {@link JumpPointFinder}, which suits open maps. */
+    JUMP_POINT,
+    /** Read the next step from the shared {@link DistanceField} rooted at the hero. */
+    FLOW_FIELD,
+    /** Repair the enemy's own {@link DStarLite} search tree as the hero and the map change. */
+    D_STAR_LITE,
+    /** Read the next step from the shared {@link HierarchicalPathFinder}, which suits very large maps. */
+    HIERARCHICAL,
+    /** Look up the next step in the shared {@link DistanceTable} of all cell pairs. */
+    DISTANCE_TABLE
+}
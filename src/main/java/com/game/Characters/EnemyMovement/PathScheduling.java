@@ -0,0 +1,13 @@
+package com.game.Characters.EnemyMovement;
+
+/**
+ * Where an {@link com.game.Characters.Enemy} runs its path searches.
+ */
+public enum PathScheduling {
+    /** Search on the game loop thread, within the frame that needs the path. */
+    SYNCHRONOUS,
+    /** Submit the search to the {@link PathfindingService} and use the result a frame or more later. */
+    ASYNCHRONOUS,
+    /** Search on the game loop thread, spread over frames within the shared {@link SearchBudget}. */
+    TIME_SLICED
+}
@@ -0,0 +1,115 @@
+package com.game.Characters.EnemyMovement;
+
+import com.game.Tile.PassabilitySnapshot;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs path searches on a pool of worker threads instead of the game loop.
+ * <p>
+ * A character submits a request and keeps polling the returned {@link Future} on later
+ * frames; until it is done the character keeps walking in its last direction. The request
+ * carries a {@link PassabilitySnapshot} taken on the game thread, so the workers never read
+ * the tile manager while the game thread changes it. Each worker thread has its own
+ * {@link PathFinder} and {@link JumpPointFinder}, so their search arrays are never shared
+ * between searches running at the same time.
+ * <p>
+ * The game uses the one service returned by {@link #shared()}, so game panels created and
+ * thrown away (on a restart or in the tests) do not each leave a pool of idle threads
+ * behind. The workers are daemon threads and do not keep the game from exiting.
+ */
+public class PathfindingService {
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final PathfindingService SHARED = new PathfindingService(2);
+
+    private final ExecutorService workers;
+    private final ThreadLocal<PathFinder> aStar = ThreadLocal.withInitial(PathFinder::new);
+    private final ThreadLocal<JumpPointFinder> jumpPoint = ThreadLocal.withInitial(JumpPointFinder::new);
+
+    /**
+     * Creates a service with a fixed number of worker threads. The threads are only started
+     * when the first requests come in.
+     *
+     * @param threads the number of worker threads
+     */
+    public PathfindingService(int threads){
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "pathfinding-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the service shared by every game panel in the process.
+     *
+     * @return the shared service
+     */
+    public static PathfindingService shared(){return SHARED;}
+
+    /**
+     * Queues a path search.
+     *
+     * @param map the passability to search, taken on the game thread
+     * @param mode {@link PathMode#JUMP_POINT} to search with Jump Point Search, any other
+     *             mode for A*
+     * @param startCol the column the path starts from
+     * @param startRow the row the path starts from
+     * @param goalCol the column of the goal
+     * @param goalRow the row of the goal
+     * @return the pending result; it holds an empty path when the goal cannot be reached
+     */
+    public Future<Result> submit(PassabilitySnapshot map, PathMode mode, int startCol, int startRow, int goalCol, int goalRow){
+        return workers.submit(() -> {
+            PathFinder pathFinder = mode == PathMode.JUMP_POINT ? jumpPoint.get() : aStar.get();
+            pathFinder.setNode(map, startCol, startRow, goalCol, goalRow);
+            int[] cells = new int[pathFinder.search() ? pathFinder.getPathLength() : 0];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = pathFinder.getPathCell(i);
+            }
+            return new Result(cells, pathFinder.getCols(), startCol, startRow, map.getVersion());
+        });
+    }
+
+    /**
+     * Stops the worker threads. Searches that are still queued are dropped. The
+     * {@link #shared()} service is meant to live as long as the process and is not shut down.
+     */
+    public void shutdown(){
+        workers.shutdownNow();
+    }
+
+    /**
+     * The outcome of one search: the path cells, start excluded, and the map version the
+     * search started on.
+     */
+    public static final class Result {
+        private final int[] cells;
+        private final int cols;
+        private final int startCol, startRow;
+        private final int mapVersion;
+
+        Result(int[] cells, int cols, int startCol, int startRow, int mapVersion){
+            this.cells = cells;
+            this.cols = cols;
+            this.startCol = startCol;
+            this.startRow = startRow;
+            this.mapVersion = mapVersion;
+        }
+
+        public int getPathLength(){return cells.length;}
+
+        public int getPathCell(int i){return cells[i];}
+
+        public int getCols(){return cols;}
+
+        public int getStartCol(){return startCol;}
+
+        public int getStartRow(){return startRow;}
+
+        public int getMapVersion(){return mapVersion;}
+    }
+}
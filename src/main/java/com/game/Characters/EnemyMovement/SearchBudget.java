@@ -0,0 +1,84 @@
+package com.game.Characters.EnemyMovement;
+
+/**
+ * Limits how much path searching all enemies together may do in one frame.
+ * <p>
+ * The budget is given per enemy and refilled at the start of every frame for the number of
+ * enemies that search in it, so adding enemies does not leave each of them less. Enemies ask for a slice of it
+ * before each part of a search with {@link #grant(int)} and report what they used with
+ * {@link #spend(int)}. A slice is refused once either the number of expansions or the
+ * time allowed for the frame is used up, and the search continues on the next frame.
+ */
+public class SearchBudget {
+    private int expansionsPerEnemy;
+    private long nanosPerEnemy;
+    private int remaining;
+    private long deadline;
+
+    /**
+     * Creates a budget; it is empty until the first {@link #startFrame()}.
+     *
+     * @param expansionsPerEnemy the number of cells each enemy's searches may check per frame
+     * @param microsPerEnemy the time each enemy's searches may take per frame, in microseconds
+     */
+    public SearchBudget(int expansionsPerEnemy, long microsPerEnemy){
+        configure(expansionsPerEnemy, microsPerEnemy);
+    }
+
+    /**
+     * Changes the budget from the next frame on.
+     *
+     * @param expansionsPerEnemy the number of cells each enemy's searches may check per frame
+     * @param microsPerEnemy the time each enemy's searches may take per frame, in microseconds
+     */
+    public void configure(int expansionsPerEnemy, long microsPerEnemy){
+        this.expansionsPerEnemy = expansionsPerEnemy;
+        this.nanosPerEnemy = microsPerEnemy * 1000;
+    }
+
+    /**
+     * Refills the budget for a single enemy at the start of a frame.
+     */
+    public void startFrame(){
+        startFrame(1);
+    }
+
+    /**
+     * Refills the budget at the start of a frame for the given number of enemies.
+     *
+     * @param enemies the number of enemies that search in this frame
+     */
+    public void startFrame(int enemies){
+        remaining = expansionsPerEnemy * enemies;
+        deadline = System.nanoTime() + nanosPerEnemy * enemies;
+    }
+
+    /**
+     * Asks for a slice of the budget.
+     *
+     * @param max the largest slice the caller wants
+     * @return the number of expansions the caller may run now, {@code 0} when this frame's
+     *         budget is used up
+     */
+    public int grant(int max){
+        if (remaining <= 0 || System.nanoTime() >= deadline) {
+            return 0;
+        }
+        return Math.min(max, remaining);
+    }
+
+    /**
+     * Takes the expansions a search actually ran off the budget.
+     *
+     * @param expansions the number of cells checked
+     */
+    public void spend(int expansions){
+        remaining -= expansions;
+    }
+
+    public int getExpansionsPerEnemy(){return expansionsPerEnemy;}
+
+    public long getMicrosPerEnemy(){return nanosPerEnemy / 1000;}
+
+    public int getRemaining(){return remaining;}
+}
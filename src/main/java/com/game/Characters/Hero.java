@@ -78,22 +78,22 @@ public class Hero extends Character implements Score{
 
         if(keyHandler.getPressed(Direction.UP)){
             this.currentDirection = Direction.UP;
-            if(!collisionOn)  this.moveUp(movementSpeed);
+            if(!collisionOn)  this.moveUp(getMovementStep());
 
         }else if (keyHandler.getPressed(Direction.DOWN)) {
             this.currentDirection = Direction.DOWN;
-            if(!collisionOn)  this.moveDown(movementSpeed);
+            if(!collisionOn)  this.moveDown(getMovementStep());
 
         }else if (keyHandler.getPressed(Direction.LEFT)) {
             this.lastDirection = this.currentDirection;
             this.currentDirection = Direction.LEFT;
-            if(!collisionOn)  this.moveLeft(movementSpeed);
+            if(!collisionOn)  this.moveLeft(getMovementStep());
 
         }else if (keyHandler.getPressed(Direction.RIGHT)) {
 
             this.lastDirection = this.currentDirection;
             this.currentDirection = Direction.RIGHT;
-            if(!collisionOn)  this.moveRight(movementSpeed);
+            if(!collisionOn)  this.moveRight(getMovementStep());
 
         }
     }
@@ -212,6 +212,7 @@ public class Hero extends Character implements Score{
         if(itemIndex != 999) { // if there is no hero-item collision index = 999
             this.itemsCollected++;
             item[itemIndex].collisionAction(this);
+            gamePanel.itemGrid.remove(item[itemIndex]);
             item[itemIndex] = null;
 
         }
@@ -0,0 +1,159 @@
+package com.game.GamePanel;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Draws frames of a {@link MainGamePanel} into the {@link BufferStrategy} of a canvas that
+ * covers the panel, instead of going through Swing's repaint.
+ * <p>
+ * The render thread calls {@link #render()} whenever it wants a frame on the screen: the
+ * frame is drawn into the back buffer and shown at once, with page flipping where the
+ * screen supports it and blitting otherwise. Nothing is coalesced or deferred to the event
+ * dispatch thread, so the caller decides exactly when frames appear.
+ * <p>
+ * For every frame the renderer measures the present latency, how long showing the back
+ * buffer and syncing with the screen took, and the time from the end of the simulation
+ * tick that produced the frame until it was shown.
+ */
+public class ActiveRenderer {
+    private static final int BUFFERS = 2;
+
+    private final MainGamePanel gamePanel;
+    private final Canvas canvas;
+    private BufferStrategy strategy;
+
+    private long frames;
+    private long presentSum, presentMax;
+    private long tickToPresentSum, tickToPresentMax;
+
+    /**
+     * Creates a renderer with a canvas the size of the panel. The canvas still has to be
+     * added to the panel; frames are drawn once it is displayable.
+     *
+     * @param gamePanel the game panel whose frames are drawn
+     */
+    public ActiveRenderer(MainGamePanel gamePanel){
+        this.gamePanel = gamePanel;
+        this.canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(gamePanel.screenWidth, gamePanel.screenHeight));
+        canvas.setBackground(Color.black);
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(true);
+    }
+
+    public Canvas getCanvas(){
+        return canvas;
+    }
+
+    /**
+     * Draws one frame and shows it.
+     *
+     * @return {@code true} if the frame was shown, {@code false} if the canvas is not on the
+     *         screen yet
+     */
+    public boolean render(){
+        if (strategy == null) {
+            if (!canvas.isDisplayable()) {
+                return false;
+            }
+            canvas.createBufferStrategy(BUFFERS);
+            strategy = canvas.getBufferStrategy();
+            canvas.requestFocusInWindow(); // the canvas covers the panel and takes its key input
+        }
+        do {
+            do {
+                Graphics2D g2 = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g2.setColor(Color.black);
+                    g2.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+                    gamePanel.renderFrame(g2);
+                } finally {
+                    g2.dispose();
+                }
+            } while (strategy.contentsRestored());
+            long presentStart = System.nanoTime();
+            strategy.show();
+            Toolkit.getDefaultToolkit().sync();
+            long presented = System.nanoTime();
+            record(presented - presentStart, gamePanel.getSnapshot());
+        } while (strategy.contentsLost());
+        return true;
+    }
+
+    private void record(long present, WorldSnapshot frame){
+        frames++;
+        presentSum += present;
+        presentMax = Math.max(presentMax, present);
+        if (frame != null) {
+            long tickToPresent = System.nanoTime() - frame.getTickNanos();
+            tickToPresentSum += tickToPresent;
+            tickToPresentMax = Math.max(tickToPresentMax, tickToPresent);
+        }
+    }
+
+    /**
+     * Returns whether frames are shown by page flipping rather than by copying the back
+     * buffer.
+     *
+     * @return {@code true} for page flipping, {@code false} for blitting or before the
+     *         first frame
+     */
+    public boolean isPageFlipping(){
+        return strategy != null && strategy.getCapabilities().isPageFlipping();
+    }
+
+    /**
+     * Starts a new statistics window.
+     */
+    public void resetStatistics(){
+        frames = 0;
+        presentSum = 0;
+        presentMax = 0;
+        tickToPresentSum = 0;
+        tickToPresentMax = 0;
+    }
+
+    public long getFrames(){
+        return frames;
+    }
+
+    /**
+     * Returns how long showing a frame took on average in the current window.
+     *
+     * @return the mean present latency in nanoseconds
+     */
+    public long getMeanPresentNanos(){
+        return frames == 0 ? 0 : presentSum / frames;
+    }
+
+    public long getMaxPresentNanos(){
+        return presentMax;
+    }
+
+    /**
+     * Returns how long it took on average from the end of a simulation tick until the
+     * frame showing it was on the screen, in the current window.
+     *
+     * @return the mean tick-to-present latency in nanoseconds
+     */
+    public long getMeanTickToPresentNanos(){
+        return frames == 0 ? 0 : tickToPresentSum / frames;
+    }
+
+    public long getMaxTickToPresentNanos(){
+        return tickToPresentMax;
+    }
+
+    /**
+     * Describes the statistics of the current window in one line.
+     *
+     * @return the statistics as text
+     */
+    public String report(){
+        return String.format("frames: %d (%s)  present: %.3f ms mean, %.3f ms max  tick to present: %.3f ms mean, %.3f ms max",
+                frames, isPageFlipping() ? "page flipping" : "blitting",
+                getMeanPresentNanos() / 1e6, presentMax / 1e6,
+                getMeanTickToPresentNanos() / 1e6, tickToPresentMax / 1e6);
+    }
+}
@@ -0,0 +1,49 @@
+package com.game.GamePanel;
+
+import java.awt.*;
+
+/**
+ * Works out which part of the world is shown on the screen.
+ * <p>
+ * The camera keeps the hero in the middle of the screen, as it is drawn between its two
+ * ticks, so the view scrolls as smoothly as the hero moves. Near the edges of the world the
+ * view stops at the edge instead of showing what is beyond it. A world that is no larger
+ * than the screen is always shown from its top left corner.
+ * <p>
+ * The origin is worked out from a snapshot and an interpolation value alone, so the
+ * renderer that draws a frame and the one that works out its damage agree on it.
+ */
+public class Camera {
+    private final MainGamePanel gamePanel;
+
+    /**
+     * Creates a camera for the world of a game panel.
+     *
+     * @param gamePanel the game panel whose screen size and tile manager are used
+     */
+    public Camera(MainGamePanel gamePanel){
+        this.gamePanel = gamePanel;
+    }
+
+    /**
+     * Returns the world position shown at the top left corner of the screen.
+     *
+     * @param frame the snapshot whose hero the camera follows
+     * @param alpha how far the hero is between the snapshot's two ticks, from 0 to 1
+     * @return the origin of the view in world pixels
+     */
+    public Point origin(WorldSnapshot frame, double alpha){
+        int tileSize = gamePanel.tileSize;
+        WorldSnapshot.Sprite hero = frame.getHero();
+        int centerX = hero.getDrawX(alpha, tileSize) + tileSize / 2;
+        int centerY = hero.getDrawY(alpha, tileSize) + tileSize / 2;
+        int worldWidth = gamePanel.tileM.getMapCols() * tileSize;
+        int worldHeight = gamePanel.tileM.getMapRows() * tileSize;
+        return new Point(clamp(centerX - gamePanel.screenWidth / 2, worldWidth - gamePanel.screenWidth),
+                clamp(centerY - gamePanel.screenHeight / 2, worldHeight - gamePanel.screenHeight));
+    }
+
+    private static int clamp(int origin, int max){
+        return Math.max(0, Math.min(origin, max));
+    }
+}
@@ -0,0 +1,185 @@
+package com.game.GamePanel;
+
+import com.game.Tile.TileManager;
+import com.game.UI.UI;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Works out which parts of the screen changed between two rendered frames.
+ * <p>
+ * Each frame is compared with the one rendered before it. A sprite that appeared,
+ * disappeared, moved or changed its image damages the area it covered in both frames, and
+ * a sprite that is still sliding between two ticks damages its whole path, since
+ * interpolation draws it somewhere new every frame. The score and timer, and the message,
+ * damage their part of the screen when their text changes. A new tile layer or the end of
+ * the game damages the whole screen, and so does scrolling the {@link Camera}.
+ */
+public class DamageTracker {
+    private final int width, height, tileSize;
+    private final UI ui;
+
+    private WorldSnapshot last;
+    private TileManager lastTiles;
+    private int lastTileVersion;
+    private Point lastOrigin;
+    private Point origin;
+    private double lastCoverage;
+
+    /**
+     * Creates a tracker; the first frame damages the whole screen.
+     *
+     * @param width the width of the screen in pixels
+     * @param height the height of the screen in pixels
+     * @param tileSize the size of a tile in pixels
+     * @param ui the UI whose text areas are tracked
+     */
+    public DamageTracker(int width, int height, int tileSize, UI ui){
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.ui = ui;
+    }
+
+    /**
+     * Returns the regions that have to be redrawn to show a frame of a world that is shown
+     * from its top left corner, and remembers the frame for the next call.
+     *
+     * @param frame the snapshot that is about to be rendered
+     * @param tileM the tile manager that draws the tiles under it
+     * @return the damaged regions; they may overlap
+     */
+    public List<Rectangle> track(WorldSnapshot frame, TileManager tileM){
+        return track(frame, tileM, new Point(0, 0));
+    }
+
+    /**
+     * Returns the regions that have to be redrawn to show a frame, and remembers the frame
+     * for the next call.
+     *
+     * @param frame the snapshot that is about to be rendered
+     * @param tileM the tile manager that draws the tiles under it
+     * @param origin the world position the camera shows at the top left of the screen
+     * @return the damaged regions in screen coordinates; they may overlap
+     */
+    public List<Rectangle> track(WorldSnapshot frame, TileManager tileM, Point origin){
+        List<Rectangle> damage = new ArrayList<>();
+        this.origin = origin;
+        if (last == null || tileM != lastTiles || tileM.getTileLayerVersion() != lastTileVersion
+                || !origin.equals(lastOrigin) || frame.isGameDone() || last.isGameDone()) {
+            damage.add(new Rectangle(0, 0, width, height));
+        } else {
+            addSpriteDamage(damage, frame, last);
+            if (frame != last) {
+                addSpriteDamage(damage, last, frame);
+            }
+            if (frame.getScore() != last.getScore() || frame.getTime() != last.getTime()) {
+                damage.add(ui.getHudBounds());
+            }
+            if (!Objects.equals(frame.getMessage(), last.getMessage())) {
+                damage.add(ui.getMessageBounds());
+            }
+        }
+        last = frame;
+        lastTiles = tileM;
+        lastOrigin = origin;
+        lastTileVersion = tileM.getTileLayerVersion();
+        lastCoverage = coverage(damage);
+        return damage;
+    }
+
+    /**
+     * Adds the bounds of every sprite of {@code frame} that is moving or is not drawn the
+     * same way in {@code other}.
+     */
+    private void addSpriteDamage(List<Rectangle> damage, WorldSnapshot frame, WorldSnapshot other){
+        Set<DrawnSprite> unchanged = new HashSet<>();
+        if (frame != other) {
+            unchanged.add(new DrawnSprite(other.getHero()));
+            unchanged.add(new DrawnSprite(other.getEnemy()));
+            for (int i = 0; i < other.getItemCount(); i++) {
+                unchanged.add(new DrawnSprite(other.getItem(i)));
+            }
+        }
+        addSpriteDamage(damage, frame.getHero(), unchanged, frame != other);
+        addSpriteDamage(damage, frame.getEnemy(), unchanged, frame != other);
+        for (int i = 0; i < frame.getItemCount(); i++) {
+            addSpriteDamage(damage, frame.getItem(i), unchanged, frame != other);
+        }
+    }
+
+    private void addSpriteDamage(List<Rectangle> damage, WorldSnapshot.Sprite sprite, Set<DrawnSprite> unchanged,
+                                 boolean compare){
+        if (sprite.isMoving(tileSize) || (compare && !unchanged.contains(new DrawnSprite(sprite)))) {
+            Rectangle bounds = sprite.getBounds(tileSize);
+            bounds.translate(-origin.x, -origin.y);
+            damage.add(bounds);
+        }
+    }
+
+    /**
+     * Returns the share of the screen the damaged regions cover; overlaps are counted once
+     * per region, so this is an upper bound.
+     */
+    private double coverage(List<Rectangle> damage){
+        Rectangle screen = new Rectangle(0, 0, width, height);
+        long area = 0;
+        for (Rectangle r : damage) {
+            Rectangle visible = r.intersection(screen);
+            if (!visible.isEmpty()) {
+                area += (long) visible.width * visible.height;
+            }
+        }
+        return Math.min(1.0, (double) area / ((long) width * height));
+    }
+
+    /**
+     * Returns the share of the screen the last frame damaged.
+     *
+     * @return a value between 0 and 1; overlapping regions are counted more than once
+     */
+    public double getLastCoverage(){
+        return lastCoverage;
+    }
+
+    /**
+     * Forgets the last frame, so the next one damages the whole screen.
+     */
+    public void reset(){
+        last = null;
+    }
+
+    /**
+     * A sprite as it appears on the screen: where it is drawn and with which image.
+     */
+    private static final class DrawnSprite {
+        private final int x, y;
+        private final BufferedImage image;
+
+        DrawnSprite(WorldSnapshot.Sprite sprite){
+            this.x = sprite.getX();
+            this.y = sprite.getY();
+            this.image = sprite.getImage();
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if (!(o instanceof DrawnSprite)) {
+                return false;
+            }
+            DrawnSprite other = (DrawnSprite) o;
+            return x == other.x && y == other.y && image == other.image;
+        }
+
+        @Override
+        public int hashCode(){
+            return (x * 31 + y) * 31 + System.identityHashCode(image);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.game.GamePanel;
+
+import com.game.Utilities.CompatibleImages;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Renders only the parts of the screen that changed since the last frame.
+ * <p>
+ * The whole frame is kept in a back buffer. For every frame the render thread asks the
+ * {@link DamageTracker} which regions changed and asks Swing to repaint just those. When
+ * Swing paints, the damaged regions of the back buffer are redrawn with the snapshot they
+ * were worked out for, clipped to each region, and the back buffer is copied to the screen
+ * within Swing's clip. Everything outside the damaged regions is left as it was.
+ * <p>
+ * With the debug overlay on, the damaged regions of each frame are outlined on the screen,
+ * together with the share of the screen that was redrawn.
+ */
+public class DirtyRectRenderer {
+    private final MainGamePanel gamePanel;
+    private final DamageTracker tracker;
+    private final BufferedImage backBuffer;
+    private final Rectangle overlayTextBounds;
+    private final ConcurrentLinkedQueue<PendingFrame> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean overlay = Boolean.getBoolean("game.damageOverlay");
+    private List<Rectangle> lastDamage = List.of();
+    private volatile double lastCoverage;
+    private volatile int lastRegions;
+
+    /**
+     * Creates a renderer with a back buffer the size of the panel.
+     *
+     * @param gamePanel the game panel whose frames are rendered
+     */
+    public DirtyRectRenderer(MainGamePanel gamePanel){
+        this.gamePanel = gamePanel;
+        this.tracker = new DamageTracker(gamePanel.screenWidth, gamePanel.screenHeight, gamePanel.tileSize, gamePanel.ui);
+        this.backBuffer = CompatibleImages.create(gamePanel.screenWidth, gamePanel.screenHeight, Transparency.OPAQUE);
+        this.overlayTextBounds = new Rectangle(0, gamePanel.screenHeight - 28, 420, 28);
+    }
+
+    /**
+     * Works out the damage of the next frame and asks Swing to repaint the damaged regions.
+     * Called on the render thread.
+     */
+    public void requestFrame(){
+        WorldSnapshot frame = gamePanel.getSnapshot();
+        if (frame == null) {
+            return;
+        }
+        double alpha = gamePanel.getInterpolationAlpha();
+        List<Rectangle> damage = tracker.track(frame, gamePanel.tileM, gamePanel.getCamera().origin(frame, alpha));
+        lastCoverage = tracker.getLastCoverage();
+        lastRegions = damage.size();
+        if (overlay) {
+            // the outlines and text of the last frame have to be painted over again
+            List<Rectangle> withOverlay = new ArrayList<>(damage);
+            withOverlay.addAll(lastDamage);
+            withOverlay.add(overlayTextBounds);
+            lastDamage = damage;
+            damage = withOverlay;
+        }
+        if (damage.isEmpty()) {
+            return;
+        }
+        pending.add(new PendingFrame(frame, alpha, damage));
+        for (Rectangle region : damage) {
+            gamePanel.repaint(region);
+        }
+    }
+
+    /**
+     * Redraws the damaged regions of all pending frames into the back buffer and copies it to
+     * the screen. Called by Swing's painting.
+     *
+     * @param g the graphics context of the panel
+     */
+    public void paint(Graphics2D g){
+        List<Rectangle> drawn = new ArrayList<>();
+        PendingFrame next;
+        Graphics2D buffer = backBuffer.createGraphics();
+        while ((next = pending.poll()) != null) {
+            for (Rectangle region : next.damage) {
+                buffer.setClip(region);
+                buffer.setColor(Color.black);
+                buffer.fill(region);
+                gamePanel.renderFrame(buffer, next.frame, next.alpha);
+                drawn.add(region);
+            }
+        }
+        buffer.dispose();
+        g.drawImage(backBuffer, 0, 0, null);
+        if (overlay) {
+            drawOverlay(g, drawn);
+        }
+    }
+
+    private void drawOverlay(Graphics2D g, List<Rectangle> drawn){
+        g.setColor(Color.red);
+        for (Rectangle region : drawn) {
+            if (!region.equals(overlayTextBounds)) {
+                g.drawRect(region.x, region.y, region.width - 1, region.height - 1);
+            }
+        }
+        g.setColor(Color.black);
+        g.fill(overlayTextBounds);
+        g.setColor(Color.yellow);
+        g.setFont(g.getFont().deriveFont(16F));
+        g.drawString(String.format("redrawn: %.1f%% of the screen in %d regions", lastCoverage * 100, lastRegions),
+                6, overlayTextBounds.y + 20);
+    }
+
+    /**
+     * Turns the debug overlay of damaged regions on or off. It starts on if the system
+     * property {@code game.damageOverlay} is set.
+     *
+     * @param overlay {@code true} to outline the damaged regions
+     */
+    public void setOverlay(boolean overlay){
+        this.overlay = overlay;
+    }
+
+    public boolean isOverlay(){
+        return overlay;
+    }
+
+    /**
+     * Returns the share of the screen the last frame redrew.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getLastCoverage(){
+        return lastCoverage;
+    }
+
+    /**
+     * A frame waiting to be painted: the snapshot, the interpolation of its sprites and the
+     * regions to redraw.
+     */
+    private static final class PendingFrame {
+        private final WorldSnapshot frame;
+        private final double alpha;
+        private final List<Rectangle> damage;
+
+        PendingFrame(WorldSnapshot frame, double alpha, List<Rectangle> damage){
+            this.frame = frame;
+            this.alpha = alpha;
+            this.damage = damage;
+        }
+    }
+}
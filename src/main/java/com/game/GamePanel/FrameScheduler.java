@@ -0,0 +1,242 @@
+package com.game.GamePanel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces the game loop at a fixed number of ticks per second without busy-waiting.
+ * <p>
+ * {@link #awaitNextTick()} parks the calling thread until shortly before the next tick is
+ * due and only spins for the last {@link #SPIN_NANOS} nanoseconds, where parking is too
+ * coarse to wake up on time. Tick deadlines are computed from the start time, so rounding
+ * never adds up to drift. When the loop falls behind, the ticks it missed are reported so
+ * the caller can run them back to back, as the old delta-based loop did.
+ * <p>
+ * The scheduler also keeps statistics for the current window: how late ticks started
+ * (jitter), how many ticks had to be caught up, and how much CPU time the loop thread used
+ * compared to the wall-clock time that passed.
+ * <p>
+ * Time, parking, spinning and CPU time all go through a {@link Clock}, so the pacing can be
+ * checked against a fake clock instead of the real one.
+ */
+public class FrameScheduler {
+    /** How long before a deadline the scheduler stops parking and starts spinning. */
+    public static final long SPIN_NANOS = 1_000_000;
+
+    /**
+     * The source of time the scheduler waits on.
+     */
+    public interface Clock {
+        /** The real clock: {@link System#nanoTime()}, {@link LockSupport#parkNanos(long)}
+         *  and the CPU time of the current thread. */
+        Clock SYSTEM = new Clock() {
+            private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+            @Override
+            public long nanoTime(){
+                return System.nanoTime();
+            }
+
+            @Override
+            public void parkNanos(long nanos){
+                LockSupport.parkNanos(nanos);
+            }
+
+            @Override
+            public void onSpinWait(){
+                Thread.onSpinWait();
+            }
+
+            @Override
+            public long threadCpuTime(){
+                return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+            }
+        };
+
+        /**
+         * Returns the current time.
+         *
+         * @return the time in nanoseconds, from an arbitrary origin
+         */
+        long nanoTime();
+
+        /**
+         * Suspends the calling thread for about the given time; it may wake up early or late.
+         *
+         * @param nanos the time to park in nanoseconds
+         */
+        void parkNanos(long nanos);
+
+        /**
+         * Called once for every turn of the spin loop before a deadline.
+         */
+        void onSpinWait();
+
+        /**
+         * Returns the CPU time the calling thread has used.
+         *
+         * @return the CPU time in nanoseconds, or {@code -1} if it is not available
+         */
+        long threadCpuTime();
+    }
+
+    private final int ticksPerSecond;
+    private final Clock clock;
+    private long startNanos;
+    private long tickIndex;
+    private long nextDeadline;
+
+    private long windowStartNanos, windowStartCpu;
+    private long windowTicks, windowMissed;
+    private long jitterSum, jitterMax;
+    private long totalMissed;
+
+    /**
+     * Creates a scheduler; call {@link #start()} before the first tick.
+     *
+     * @param ticksPerSecond the number of ticks per second
+     */
+    public FrameScheduler(int ticksPerSecond){
+        this(ticksPerSecond, Clock.SYSTEM);
+    }
+
+    /**
+     * Creates a scheduler that waits on the given clock; call {@link #start()} before the
+     * first tick.
+     *
+     * @param ticksPerSecond the number of ticks per second
+     * @param clock the clock to read, park and spin on
+     */
+    public FrameScheduler(int ticksPerSecond, Clock clock){
+        this.ticksPerSecond = ticksPerSecond;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts counting ticks from now and opens a new statistics window. Must be called on
+     * the thread that waits for the ticks, since its CPU time is measured.
+     */
+    public void start(){
+        startNanos = clock.nanoTime();
+        tickIndex = 1;
+        nextDeadline = deadline(tickIndex);
+        totalMissed = 0;
+        resetStatistics();
+    }
+
+    private long deadline(long tick){
+        return startNanos + tick * 1_000_000_000L / ticksPerSecond;
+    }
+
+    /**
+     * Waits until the next tick is due.
+     *
+     * @return the number of ticks to run now: {@code 1} when the loop is on time, more when
+     *         it fell behind and has ticks to catch up
+     */
+    public int awaitNextTick(){
+        long now = clock.nanoTime();
+        while (nextDeadline - now > SPIN_NANOS) {
+            clock.parkNanos(nextDeadline - now - SPIN_NANOS);
+            now = clock.nanoTime();
+        }
+        while (nextDeadline - now > 0) {
+            clock.onSpinWait();
+            now = clock.nanoTime();
+        }
+
+        long late = now - nextDeadline;
+        jitterSum += late;
+        jitterMax = Math.max(jitterMax, late);
+
+        int due = 1;
+        while (deadline(tickIndex + due) <= now) {
+            due++;
+        }
+        tickIndex += due;
+        nextDeadline = deadline(tickIndex);
+        windowTicks += due;
+        windowMissed += due - 1;
+        totalMissed += due - 1;
+        return due;
+    }
+
+    /**
+     * Starts a new statistics window.
+     */
+    public void resetStatistics(){
+        windowStartNanos = clock.nanoTime();
+        windowStartCpu = clock.threadCpuTime();
+        windowTicks = 0;
+        windowMissed = 0;
+        jitterSum = 0;
+        jitterMax = 0;
+    }
+
+    /**
+     * Returns the share of one core the waiting thread used in the current window. Must be
+     * called on that thread.
+     *
+     * @return the CPU load between 0 and 1, or {@code -1} if thread CPU time is not available
+     */
+    public double getCpuLoad(){
+        long cpu = clock.threadCpuTime();
+        long wall = clock.nanoTime() - windowStartNanos;
+        if (cpu < 0 || windowStartCpu < 0 || wall <= 0) {
+            return -1;
+        }
+        return (double) (cpu - windowStartCpu) / wall;
+    }
+
+    /**
+     * Returns how late ticks started on average in the current window.
+     *
+     * @return the mean jitter in nanoseconds
+     */
+    public long getMeanJitterNanos(){
+        long waits = windowTicks - windowMissed;
+        return waits == 0 ? 0 : jitterSum / waits;
+    }
+
+    /**
+     * Returns how late the tick that was most behind in the current window started.
+     *
+     * @return the largest jitter in nanoseconds
+     */
+    public long getMaxJitterNanos(){
+        return jitterMax;
+    }
+
+    public long getWindowTicks(){
+        return windowTicks;
+    }
+
+    /**
+     * Returns the number of ticks in the current window that were not on time and had to
+     * be caught up.
+     *
+     * @return the missed ticks of the window
+     */
+    public long getMissedTicks(){
+        return windowMissed;
+    }
+
+    public long getTotalMissedTicks(){
+        return totalMissed;
+    }
+
+    public int getTicksPerSecond(){
+        return ticksPerSecond;
+    }
+
+    /**
+     * Describes the statistics of the current window in one line.
+     *
+     * @return the statistics as text
+     */
+    public String report(){
+        return String.format("ticks: %d  missed: %d  jitter: %.3f ms mean, %.3f ms max  cpu: %.1f%%",
+                windowTicks, windowMissed, getMeanJitterNanos() / 1e6, jitterMax / 1e6, getCpuLoad() * 100);
+    }
+}
@@ -3,6 +3,7 @@ package com.game.GamePanel;
 import com.game.Characters.*;
 import com.game.GameTerminator.GameTerminator;
 import com.game.Items.Item;
+import com.game.Items.ItemGrid;
 import com.game.Tile.TileManager;
 import com.game.UI.UI;
 
@@ -16,12 +17,13 @@ public abstract class GamePanel extends JPanel implements Runnable, ScreenSettin
     protected Hero hero;
     protected Enemy enemy;
     public Item[] item; // item slots - dictates how many items can be displayed at one time
+    public ItemGrid itemGrid = new ItemGrid(); // the items in the slots by the tile they stand on
 
     public UI ui;
     public TileManager tileM;
     protected int timeElapsedSec;
 
-    public boolean running = false;
+    public volatile boolean running = false; // read by the simulation and render loops, written from other threads
     public Thread thread;
     protected int timeElapsed;    // time elapsed since game started in seconds
     public Graphics2D g2;
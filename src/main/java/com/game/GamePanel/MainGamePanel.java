@@ -2,9 +2,17 @@ package com.game.GamePanel;
 
 import com.game.Utilities.AssetSetter;
 import com.game.Characters.*;
+import com.game.Characters.EnemyMovement.DistanceField;
+import com.game.Characters.EnemyMovement.DistanceTable;
+import com.game.Characters.EnemyMovement.HierarchicalPathFinder;
+import com.game.Characters.EnemyMovement.JumpPointFinder;
 import com.game.Characters.EnemyMovement.PathFinder;
+import com.game.Characters.EnemyMovement.PathfindingService;
+import com.game.Characters.EnemyMovement.SearchBudget;
 
 import com.game.Utilities.CollisionChecker;
+import com.game.Utilities.CompatibleImages;
+import com.game.Utilities.SpriteCache;
 import com.game.GameTerminator.DefaultGameTerminator;
 import com.game.Items.APlusPaper;
 import com.game.Items.Item;
@@ -15,6 +23,7 @@ import com.game.UI.UI;
 import javax.swing.*;
 import java.awt.*;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Manages the main game panel, rendering, and game loop.
@@ -26,12 +35,28 @@ import java.io.IOException;
  */
 public class MainGamePanel extends GamePanel{
 
+    private final long createdNanos = System.nanoTime(); // first, to time the whole startup
+    private volatile long timeToFirstFrameNanos = -1;
     private int difficulty;
     public AssetSetter assetSetter = new AssetSetter(this);
     public CollisionChecker collisionChecker = new CollisionChecker(this);
     public PathFinder pathFinder = new PathFinder(this);
+    public JumpPointFinder jumpPointFinder = new JumpPointFinder(this);
+    public DistanceField distanceField = new DistanceField(this);
+    public HierarchicalPathFinder hierarchicalPathFinder = new HierarchicalPathFinder(this, 16);
+    public DistanceTable distanceTable = new DistanceTable(this); // before tileM, which may build it
+    public PathfindingService pathfindingService = PathfindingService.shared();
+    public SearchBudget searchBudget = new SearchBudget(2000, 1000);
     public TileManager tileM = new TileManager(this,"Easy"); //default
     KeyHandler keyHandler = new KeyHandler(this);
+    private int tickRate = FPS;
+    private FrameScheduler frameScheduler = new FrameScheduler(FPS);
+    private final AtomicReference<WorldSnapshot> snapshot = new AtomicReference<>();
+    public Thread renderThread;
+    private RenderMode renderMode = RenderMode.fromSystemProperty();
+    private ActiveRenderer activeRenderer;
+    private DirtyRectRenderer dirtyRectRenderer;
+    private final Camera camera = new Camera(this);
 
     /**
      * Initializes the game panel with default settings.
@@ -59,22 +84,40 @@ public class MainGamePanel extends GamePanel{
      * <p>
      * Depending on the difficulty level, different enemies are spawned, and other game parameters
      * are adjusted. This method also initializes the {@link TileManager}, {@link AssetSetter}, and
-     * sets the initial enemy for the game based on the difficulty.
+     * sets the initial enemy for the game based on the difficulty. The per-frame search budget
+     * for the enemies' time-sliced path searches is set for the difficulty as well; harder
+     * enemies get more of it, so they react to the hero sooner. With the
+     * system property {@code game.spriteStats} set, the sprite cache statistics are printed, and
+     * with {@code game.imageReport} set, the images that were converted to the screen format.
      *
      * @param diff A {@link String} representing the game's difficulty level.
      */
     public void  setupGame(String diff) {
         hero.diff = diff;
         tileM = new TileManager(this,diff);
+        switch (diff) {
+            case "Medium" -> searchBudget.configure(1500, 750);
+            case "Hard" -> searchBudget.configure(2000, 1000);
+            default -> searchBudget.configure(1000, 500);
+        }
         assetSetter.setObject(diff);
         setEnemy();
+        snapshot.set(WorldSnapshot.capture(this));
+        if (Boolean.getBoolean("game.spriteStats")) {
+            System.out.println(SpriteCache.shared().report());
+        }
+        if (Boolean.getBoolean("game.imageReport")) {
+            System.out.println(CompatibleImages.report());
+        }
     }
 
     /**
      * Starts the game loop in a new thread.
      * <p>
      * This method checks if the game is already running to prevent multiple instances of the game loop.
-     * It then starts a new thread that controls the game loop, updating and rendering the game state.
+     * It then starts a new thread that runs the simulation at the tick rate, and a second one that
+     * renders frames at the display's refresh rate. In {@link RenderMode#ACTIVE} a canvas that
+     * the render thread draws into directly is put over the panel first.
      */
     public void  startGame(String diff){
         //public synchronized void startGame
@@ -82,8 +125,133 @@ public class MainGamePanel extends GamePanel{
         running = true;
 
         setupGame(diff);
-        thread = new Thread(this);
+        if (renderMode == RenderMode.ACTIVE && activeRenderer == null) {
+            activeRenderer = new ActiveRenderer(this);
+            activeRenderer.getCanvas().addKeyListener(keyHandler);
+            this.setLayout(new BorderLayout());
+            this.add(activeRenderer.getCanvas(), BorderLayout.CENTER);
+        }
+        if (renderMode == RenderMode.DIRTY_RECTANGLES && dirtyRectRenderer == null) {
+            dirtyRectRenderer = new DirtyRectRenderer(this);
+        }
+        thread = new Thread(this, "simulation");
         thread.start();
+        renderThread = new Thread(this::renderLoop, "render");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    /**
+     * Sets how many simulation ticks run per second; the default is {@link #FPS}. Faster
+     * rates suit competitive modes. Movement speeds are given per tick at {@link #FPS}, and
+     * every tick the characters' steps are scaled to the rate, so they cover the same distance
+     * per second at any rate. The rate applies from the next time the game starts.
+     *
+     * @param tickRate the number of simulation ticks per second
+     */
+    public void setTickRate(int tickRate) {
+        this.tickRate = tickRate;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Returns how far the renderer is between the last two simulation states.
+     * <p>
+     * Characters are drawn between their position at the start of the last tick and their
+     * current one, which hides the steps between ticks when the display refreshes more
+     * often than the simulation runs.
+     *
+     * @return a value from 0 (the previous state) to 1 (the current state); 1 while the game
+     *         loop is not running
+     */
+    public double getInterpolationAlpha() {
+        WorldSnapshot frame = snapshot.get();
+        if (!running || frame == null) {
+            return 1;
+        }
+        double alpha = (System.nanoTime() - frame.getTickNanos()) * (double) tickRate / 1_000_000_000L;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * Chooses how frames get onto the screen. The default is read from the system property
+     * {@code game.renderMode}; the mode applies from the next time the game starts.
+     *
+     * @param renderMode the render mode
+     */
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
+    }
+
+    public RenderMode getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+     * Returns the renderer that draws into the canvas in {@link RenderMode#ACTIVE}.
+     *
+     * @return the active renderer, or {@code null} if Swing paints the panel
+     */
+    public ActiveRenderer getActiveRenderer() {
+        return activeRenderer;
+    }
+
+    /**
+     * Returns the renderer that redraws only damaged regions in
+     * {@link RenderMode#DIRTY_RECTANGLES}.
+     *
+     * @return the dirty-rectangle renderer, or {@code null} if whole frames are drawn
+     */
+    public DirtyRectRenderer getDirtyRectRenderer() {
+        return dirtyRectRenderer;
+    }
+
+    /**
+     * Renders frames at the display's refresh rate until the game stops, either by drawing
+     * them directly with the {@link ActiveRenderer} or by asking Swing to repaint the whole
+     * panel or, with the {@link DirtyRectRenderer}, the regions that changed. Rendering
+     * only reads the state the simulation thread left behind, so a slow frame never holds up
+     * a tick. With the system property {@code game.frameStats} set, the active renderer's
+     * latency statistics are printed once per second.
+     */
+    private void renderLoop() {
+        FrameScheduler renderScheduler = new FrameScheduler(displayRefreshRate());
+        renderScheduler.start();
+        boolean printFrameStats = Boolean.getBoolean("game.frameStats");
+        long timer = System.currentTimeMillis();
+        while (running) {
+            renderScheduler.awaitNextTick();
+            if (dirtyRectRenderer != null) {
+                dirtyRectRenderer.requestFrame();
+                continue;
+            }
+            if (activeRenderer == null) {
+                this.repaint();
+                continue;
+            }
+            activeRenderer.render();
+            if (System.currentTimeMillis() - timer > 1000) {
+                if (printFrameStats) {
+                    System.out.println(activeRenderer.report());
+                }
+                activeRenderer.resetStatistics();
+                timer += 1000;
+            }
+        }
+    }
+
+    /**
+     * Returns the refresh rate of the default screen, or {@link #FPS} if it is unknown.
+     */
+    private static int displayRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return FPS;
+        }
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? FPS : rate;
     }
 
     public void reSpawnAPlusPaperPosition() {
@@ -109,11 +277,60 @@ public class MainGamePanel extends GamePanel{
             case "Hard" -> this.enemy = new FailedExam(4, this);
         }
     }
+
+    /**
+     * Returns how many enemies search for the hero; a level has a single enemy.
+     */
+    public int getEnemyCount(){return enemy == null ? 0 : 1;}
+    public FrameScheduler getFrameScheduler() {
+        return frameScheduler;
+    }
+
+    /**
+     * Returns the snapshot of the world published after the last simulation tick.
+     *
+     * @return the latest snapshot, or {@code null} before the game has been set up
+     */
+    public WorldSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Updates the game state for one frame.
+     * <p>
+     * The search budget is refilled first for the number of enemies, so the enemies'
+     * time-sliced searches get a fresh share of it every frame. The characters' positions are
+     * saved for interpolated drawing, their steps are scaled to the tick rate, and the UI's
+     * timer advances by one tick. Finally a {@link WorldSnapshot} of the new state is
+     * published for the renderer.
+     *
+     * @throws IOException if there is an error loading resources.
+     */
+    @Override
+    public void update() throws IOException {
+        searchBudget.startFrame(getEnemyCount());
+        hero.savePreviousPosition();
+        enemy.savePreviousPosition();
+        hero.startTick(tickRate);
+        enemy.startTick(tickRate);
+        super.update();
+        ui.update(1.0 / tickRate);
+        snapshot.set(WorldSnapshot.capture(this));
+    }
+
     /**
      * Renders the game world and UI components to the screen.
      * <p>
      * This method overrides {@link JPanel#paintComponent(Graphics)} to custom draw the game's world and
      * UI elements. It is called as part of the swing repaint mechanism.
+     * <p>
+     * The characters, items and UI are drawn from the latest published {@link WorldSnapshot},
+     * never from the live game state, so a frame is never torn by a tick running at the same
+     * time. Until the game has been set up the live state is copied instead.
      *
      * @param g The {@link Graphics} context used for drawing.
      */
@@ -122,35 +339,79 @@ public class MainGamePanel extends GamePanel{
         super.paintComponent(g);
         g2 = (Graphics2D)g;
 
-        tileM.draw(g2);
-        // items on map
-        for (Item item : item) {
-            if (item != null) {
-                item.draw(g2, (MainGamePanel) this);
+        if (dirtyRectRenderer != null) {
+            dirtyRectRenderer.paint(g2);
+        } else {
+            renderFrame(g2);
+        }
+        g2.dispose();
+    }
+
+    /**
+     * Draws one frame of the game: the tiles, then the items and characters and the UI of the
+     * latest {@link WorldSnapshot}. Used both by Swing's painting and by the
+     * {@link ActiveRenderer}.
+     *
+     * @param g2 The graphics context to draw on.
+     */
+    public void renderFrame(Graphics2D g2){
+        WorldSnapshot frame = snapshot.get();
+        if (frame == null) {
+            frame = WorldSnapshot.capture(this);
+        }
+        renderFrame(g2, frame, getInterpolationAlpha());
+    }
+
+    /**
+     * Draws one frame of the game from a given snapshot. The tiles, items and characters are
+     * drawn as seen by the {@link Camera}; the UI stays fixed on the screen.
+     *
+     * @param g2 The graphics context to draw on.
+     * @param frame The snapshot whose items, characters and UI are drawn.
+     * @param alpha How far the characters are between the snapshot's two ticks, from 0 to 1.
+     */
+    public void renderFrame(Graphics2D g2, WorldSnapshot frame, double alpha){
+        Point origin = camera.origin(frame, alpha);
+        tileM.draw(g2, origin.x, origin.y);
+        g2.translate(-origin.x, -origin.y);
+        frame.draw(g2, alpha, tileSize);
+        g2.translate(origin.x, origin.y);
+        ui.draw(g2, frame);
+        if (timeToFirstFrameNanos < 0 && running) {
+            timeToFirstFrameNanos = System.nanoTime() - createdNanos;
+            if (Boolean.getBoolean("game.frameStats")) {
+                System.out.printf("time to first frame: %.1f ms%n", timeToFirstFrameNanos / 1e6);
             }
         }
+    }
 
-        enemy.draw(g2);
-        hero.draw(g2);
-        ui.draw(g2);
-        g2.dispose();
+    /**
+     * Returns how long it took from creating the panel, which loads the characters and the
+     * default map, until the first frame of the running game was drawn.
+     *
+     * @return the time to the first frame in nanoseconds, or {@code -1} if none was drawn yet
+     */
+    public long getTimeToFirstFrameNanos() {
+        return timeToFirstFrameNanos;
     }
 
 
     /**
      * The main game loop that controls game updates and rendering.
      * <p>
-     * This method runs in a separate thread and is responsible for the game's timing mechanism,
-     * ensuring that updates and rendering occur at a consistent rate. It calculates the delta
-     * time between frames to update game states and re-renders the game at a fixed rate. Additionally,
-     * it handles periodic tasks such as updating item states and managing power-up effects' durations.
+     * This method runs on the simulation thread and is responsible for the game's timing
+     * mechanism, ensuring that updates occur at the tick rate. Between ticks the thread is
+     * parked by the {@link FrameScheduler} instead of spinning, and ticks that were missed
+     * are caught up. Rendering happens on the render thread, so painting never delays a tick. Additionally, it handles periodic tasks such as updating item states and
+     * managing power-up effects' durations. With the system property {@code game.frameStats}
+     * set, the scheduler's statistics are printed once per second.
      */
     @Override
     public void run() {
 
-        long lastTime = System.nanoTime();
-        double frameInterval = 1000000000.0 / FPS;
-        double delta = 0;
+        frameScheduler = new FrameScheduler(tickRate);
+        frameScheduler.start();
+        boolean printFrameStats = Boolean.getBoolean("game.frameStats");
         long timer = System.currentTimeMillis();
         long start = System.currentTimeMillis();    // Used to calculate timeElapsed
         int updates = 0;
@@ -158,10 +419,8 @@ public class MainGamePanel extends GamePanel{
         int previousTimeElapsedSec = 0;
 
         while (running) {
-            long now = System.nanoTime();
+            int ticks = frameScheduler.awaitNextTick();
             long current = System.currentTimeMillis();  // Used to calculated timeElapsed
-            delta += (now - lastTime) / frameInterval;
-            lastTime = now;
             timeElapsedSec = (int) (current - start) / 1000;
 
             // Calls updateItemState() every 10 seconds that has elapsed
@@ -175,19 +434,21 @@ public class MainGamePanel extends GamePanel{
                 hero.setMovementSpeed(4);
             }
 
-            while (delta >= 1) {
+            for (int i = 0; i < ticks; i++) {
                 try {
                     this.update();
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
-                this.repaint();
-                delta--;
                 updates++;
             }
 
             if (System.currentTimeMillis() - timer > 1000) {
                 //System.out.println("FPS:" + updates); // for testing purposes
+                if (printFrameStats) {
+                    System.out.println(frameScheduler.report());
+                }
+                frameScheduler.resetStatistics();
                 updates = 0;
                 timer += 1000; // Increment timer by 1 second
                 timeElapsedSec++;
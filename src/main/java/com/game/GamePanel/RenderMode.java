@@ -0,0 +1,40 @@
+package com.game.GamePanel;
+
+/**
+ * How the {@link MainGamePanel} gets its frames onto the screen.
+ */
+public enum RenderMode {
+    /** Ask Swing to repaint the panel; Swing paints it on the event dispatch thread. */
+    PASSIVE,
+    /** Draw on the render thread into a {@link ActiveRenderer canvas buffer strategy} and show it right away. */
+    ACTIVE,
+    /** Ask Swing to repaint only the regions that changed, which the {@link DirtyRectRenderer} redraws. */
+    DIRTY_RECTANGLES;
+
+    /**
+     * Reads the mode from the system property {@code game.renderMode}, for example
+     * {@code -Dgame.renderMode=active}.
+     *
+     * @return the chosen mode, or {@link #PASSIVE} if the property is missing or unknown
+     */
+    public static RenderMode fromSystemProperty(){
+        return parse(System.getProperty("game.renderMode"));
+    }
+
+    /**
+     * Parses a mode name, ignoring case.
+     *
+     * @param name the name of the mode
+     * @return the mode, or {@link #PASSIVE} if the name is {@code null} or unknown
+     */
+    public static RenderMode parse(String name){
+        if (name != null) {
+            for (RenderMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(name.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return PASSIVE;
+    }
+}
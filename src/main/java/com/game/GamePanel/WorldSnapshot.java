@@ -0,0 +1,201 @@
+package com.game.GamePanel;
+
+import com.game.Items.Item;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable copy of everything the renderer draws on top of the tiles, taken at the end
+ * of a simulation tick.
+ * <p>
+ * The simulation thread captures a new snapshot after every tick and publishes it with a
+ * single atomic swap; the painting thread only ever reads the latest published one. A
+ * snapshot is never changed after it is captured, so the renderer always sees a complete
+ * frame, even while the next tick moves characters or picks up items, and neither side
+ * has to take a lock.
+ */
+public final class WorldSnapshot {
+    private final Sprite hero;
+    private final Sprite enemy;
+    private final Sprite[] items;
+    private final int score;
+    private final double time;
+    private final String message;
+    private final boolean gameDone;
+    private final long tickNanos;
+
+    private WorldSnapshot(Sprite hero, Sprite enemy, Sprite[] items, int score, double time, String message,
+                          boolean gameDone){
+        this.hero = hero;
+        this.enemy = enemy;
+        this.items = items;
+        this.score = score;
+        this.time = time;
+        this.message = message;
+        this.gameDone = gameDone;
+        this.tickNanos = System.nanoTime();
+    }
+
+    /**
+     * Copies the current state of the game panel. Must be called on the thread that updates
+     * the game, or before that thread is started.
+     *
+     * @param gamePanel the game panel to copy
+     * @return the snapshot
+     */
+    public static WorldSnapshot capture(MainGamePanel gamePanel){
+        List<Sprite> items = new ArrayList<>();
+        for (Item item : gamePanel.item) {
+            if (item != null) {
+                items.add(item.snapshot());
+            }
+        }
+        return new WorldSnapshot(gamePanel.getHero().snapshot(), gamePanel.getEnemy().snapshot(),
+                items.toArray(new Sprite[0]), gamePanel.getHero().getScore(), gamePanel.ui.getTimer(),
+                gamePanel.ui.getMessage(), gamePanel.ui.gameDone);
+    }
+
+    /**
+     * Draws the items, the enemy and the hero, in that order.
+     *
+     * @param g2 the graphics context to draw on
+     * @param alpha how far the renderer is between the previous and the current tick, from 0 to 1
+     * @param tileSize the size of a tile in pixels
+     */
+    public void draw(Graphics2D g2, double alpha, int tileSize){
+        for (Sprite item : items) {
+            item.draw(g2, alpha, tileSize);
+        }
+        enemy.draw(g2, alpha, tileSize);
+        hero.draw(g2, alpha, tileSize);
+    }
+
+    public Sprite getHero(){return hero;}
+
+    public Sprite getEnemy(){return enemy;}
+
+    public int getItemCount(){return items.length;}
+
+    public Sprite getItem(int i){return items[i];}
+
+    public int getScore(){return score;}
+
+    public double getTime(){return time;}
+
+    /**
+     * Returns the message the UI showed when the snapshot was taken.
+     *
+     * @return the message, or {@code null} if none was shown
+     */
+    public String getMessage(){return message;}
+
+    public boolean isGameDone(){return gameDone;}
+
+    /**
+     * Returns when the snapshot was taken.
+     *
+     * @return the {@link System#nanoTime()} at the end of the tick
+     */
+    public long getTickNanos(){return tickNanos;}
+
+    /**
+     * The image of one character or item with its position at the start and the end of the
+     * tick.
+     */
+    public static final class Sprite {
+        private final BufferedImage image;
+        private final int x, y;
+        private final int previousX, previousY;
+
+        /**
+         * Creates a sprite.
+         *
+         * @param image the image to draw
+         * @param x the X position at the end of the tick
+         * @param y the Y position at the end of the tick
+         * @param previousX the X position at the start of the tick
+         * @param previousY the Y position at the start of the tick
+         */
+        public Sprite(BufferedImage image, int x, int y, int previousX, int previousY){
+            this.image = image;
+            this.x = x;
+            this.y = y;
+            this.previousX = previousX;
+            this.previousY = previousY;
+        }
+
+        /**
+         * Draws the image between the previous and the current position. A sprite that moved
+         * more than a tile in one tick (for example through a vortex) is drawn at its current
+         * position instead of sliding across the map.
+         *
+         * @param g2 the graphics context to draw on
+         * @param alpha how far the renderer is between the previous and the current tick
+         * @param tileSize the size of a tile in pixels
+         */
+        public void draw(Graphics2D g2, double alpha, int tileSize){
+            g2.drawImage(image, getDrawX(alpha, tileSize), getDrawY(alpha, tileSize), tileSize, tileSize, null);
+        }
+
+        /**
+         * Returns the X position the sprite is drawn at.
+         *
+         * @param alpha how far the renderer is between the previous and the current tick
+         * @param tileSize the size of a tile in pixels
+         * @return the interpolated X position, or the current one after a jump
+         */
+        public int getDrawX(double alpha, int tileSize){
+            return jumped(tileSize) ? x : previousX + (int) Math.round((x - previousX) * alpha);
+        }
+
+        /**
+         * Returns the Y position the sprite is drawn at.
+         *
+         * @param alpha how far the renderer is between the previous and the current tick
+         * @param tileSize the size of a tile in pixels
+         * @return the interpolated Y position, or the current one after a jump
+         */
+        public int getDrawY(double alpha, int tileSize){
+            return jumped(tileSize) ? y : previousY + (int) Math.round((y - previousY) * alpha);
+        }
+
+        private boolean jumped(int tileSize){
+            return Math.abs(x - previousX) > tileSize || Math.abs(y - previousY) > tileSize;
+        }
+
+        /**
+         * Returns whether the sprite is drawn at a different place depending on how far the
+         * renderer is between the two ticks.
+         *
+         * @param tileSize the size of a tile in pixels
+         * @return {@code true} if the sprite slides from its previous to its current position
+         */
+        public boolean isMoving(int tileSize){
+            return !jumped(tileSize) && (x != previousX || y != previousY);
+        }
+
+        /**
+         * Returns the area the sprite covers wherever it is drawn between the two ticks.
+         *
+         * @param tileSize the size of a tile in pixels
+         * @return the bounds of the sprite's previous and current position together, or of
+         *         the current position alone after a jump
+         */
+        public Rectangle getBounds(int tileSize){
+            if (jumped(tileSize)) {
+                return new Rectangle(x, y, tileSize, tileSize);
+            }
+            return new Rectangle(Math.min(x, previousX), Math.min(y, previousY),
+                    Math.abs(x - previousX) + tileSize, Math.abs(y - previousY) + tileSize);
+        }
+
+        public BufferedImage getImage(){return image;}
+
+        public int getX(){return x;}
+
+        public int getY(){return y;}
+    }
+}
@@ -1,5 +1,6 @@
 package com.game.Items;
 import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.WorldSnapshot;
 import com.game.Tile.FloorTile;
 import com.game.Utilities.Position;
 import java.awt.*;
@@ -30,6 +31,7 @@ public class Item extends Position {
     public ItemType itemType;
     public UtilityTool utilityTool = new UtilityTool();
     protected int scoreEffect;
+    int slot = -1; // the slot in the game panel's item array while the item is in its ItemGrid
 
     public Item(MainGamePanel gamePanel) {
         this.gamePanel = gamePanel;
@@ -62,6 +64,15 @@ public class Item extends Position {
         g2.drawImage(image, screenX, screenY, gp.tileSize, gp.tileSize, null);
     }
 
+    /**
+     * Copies the item's image and position for a {@link WorldSnapshot}.
+     *
+     * @return the item's sprite
+     */
+    public WorldSnapshot.Sprite snapshot() {
+        return new WorldSnapshot.Sprite(image, getXPosition(), getYPosition(), getXPosition(), getYPosition());
+    }
+
     /**
      * Defines the action to take when the item collides with the Hero. Override in subclasses.
      *
@@ -98,9 +109,30 @@ public class Item extends Position {
         return validPosition;
     }
 
+    /**
+     * Moves the item to a tile, and to that tile's cell of the {@link ItemGrid} if the item
+     * is in it.
+     *
+     * @param param_X The column of the tile.
+     * @param param_y The row of the tile.
+     */
     public void setPosition(int param_X, int param_y) { // setter
+        int oldCol = xCoordinate;
+        int oldRow = yCoordinate;
         xCoordinate = param_X;
         yCoordinate = param_y;
         super.setPosition(param_X * 48, param_y * 48);
+        if (slot >= 0) {
+            gamePanel.itemGrid.move(this, oldCol, oldRow);
+        }
+    }
+
+    /**
+     * Returns the slot of the game panel's item array the item is in.
+     *
+     * @return the slot, or -1 if the item is not in the {@link ItemGrid}
+     */
+    public int getSlot() {
+        return slot;
     }
 }
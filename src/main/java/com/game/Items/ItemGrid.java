@@ -0,0 +1,136 @@
+package com.game.Items;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A uniform grid of the items placed on the map, with one cell per tile.
+ * <p>
+ * Every item in a slot of the game panel's item array is kept in the cell of the tile it
+ * stands on, so the collision checks only look at the one to four cells under a character
+ * instead of at every item. {@link #rebuild(Item[], int, int)} fills the grid when the items
+ * of a game have been set up; after that {@link Item#setPosition(int, int)} moves an item to
+ * its new cell and {@link #remove(Item)} takes out an item that was picked up. Items that
+ * are not in the item array, such as those made to test a spawn position, are never added.
+ * <p>
+ * Items outside the map are kept in a separate list that every query also looks at.
+ */
+public class ItemGrid {
+    private List<Item>[] cells;
+    private final List<Item> outside = new ArrayList<>();
+    private int cols, rows;
+    private int size;
+
+    /**
+     * Creates an empty grid; it covers no cells until it is rebuilt.
+     */
+    public ItemGrid(){
+        resize(0, 0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void resize(int cols, int rows){
+        this.cols = cols;
+        this.rows = rows;
+        this.cells = new List[cols * rows];
+    }
+
+    /**
+     * Empties the grid and adds every item of the item array, remembering its slot.
+     *
+     * @param items the item slots of the game panel; empty slots are {@code null}
+     * @param cols the number of columns of the map
+     * @param rows the number of rows of the map
+     */
+    public void rebuild(Item[] items, int cols, int rows){
+        resize(cols, rows);
+        outside.clear();
+        size = 0;
+        for (int slot = 0; slot < items.length; slot++) {
+            if (items[slot] != null) {
+                items[slot].slot = slot;
+                add(items[slot]);
+            }
+        }
+    }
+
+    private List<Item> cell(int col, int row, boolean create){
+        if (col < 0 || row < 0 || col >= cols || row >= rows) {
+            return outside;
+        }
+        List<Item> cell = cells[row * cols + col];
+        if (cell == null && create) {
+            cell = new ArrayList<>(2);
+            cells[row * cols + col] = cell;
+        }
+        return cell;
+    }
+
+    private void add(Item item){
+        cell(item.xCoordinate, item.yCoordinate, true).add(item);
+        size++;
+    }
+
+    /**
+     * Moves an item that is in the grid from the cell of its old tile to that of its
+     * current one.
+     *
+     * @param item the item, already at its new position
+     * @param oldCol the column of the tile it stood on before
+     * @param oldRow the row of the tile it stood on before
+     */
+    void move(Item item, int oldCol, int oldRow){
+        List<Item> old = cell(oldCol, oldRow, false);
+        if (old != null && old.remove(item)) {
+            cell(item.xCoordinate, item.yCoordinate, true).add(item);
+        }
+    }
+
+    /**
+     * Takes an item out of the grid, for example when it has been picked up. Items that are
+     * not in the grid are ignored.
+     *
+     * @param item the item to take out
+     */
+    public void remove(Item item){
+        if (item == null || item.slot < 0) {
+            return;
+        }
+        List<Item> cell = cell(item.xCoordinate, item.yCoordinate, false);
+        if (cell != null && cell.remove(item)) {
+            size--;
+        }
+        item.slot = -1;
+    }
+
+    /**
+     * Adds the items whose tiles are in a rectangle of cells to a list, followed by the items
+     * outside the map.
+     *
+     * @param firstCol the leftmost column
+     * @param firstRow the top row
+     * @param lastCol the rightmost column, inclusive
+     * @param lastRow the bottom row, inclusive
+     * @param found the list the items are added to
+     */
+    public void query(int firstCol, int firstRow, int lastCol, int lastRow, List<Item> found){
+        for (int row = Math.max(0, firstRow); row <= Math.min(rows - 1, lastRow); row++) {
+            for (int col = Math.max(0, firstCol); col <= Math.min(cols - 1, lastCol); col++) {
+                List<Item> cell = cells[row * cols + col];
+                if (cell != null) {
+                    found.addAll(cell);
+                }
+            }
+        }
+        found.addAll(outside);
+    }
+
+    /**
+     * Returns how many items are in the grid.
+     *
+     * @return the number of items
+     */
+    public int size(){
+        return size;
+    }
+}
@@ -2,6 +2,8 @@ package com.game;
 
 import com.game.GamePanel.GamePanel;
 import com.game.GamePanel.MainGamePanel;
+import com.game.Utilities.AssetPreloader;
+import com.game.Utilities.CompatibleImages;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -20,6 +22,7 @@ import java.io.IOException;
  * button to close the game.
  */
 public class Main {
+    private static AssetPreloader preloader;
 
     /**
      * The main method that serves as the entry point for the game application.
@@ -31,6 +34,7 @@ public class Main {
      * @param args Command-line arguments.
      */
     public static void main(String[] args) {
+        preloader = AssetPreloader.start(3); // loads the game's assets while the menu is up
         JFrame window = new JFrame();
         JPanel mainPanel = new JPanel(new BorderLayout());
 
@@ -38,6 +42,7 @@ public class Main {
         BufferedImage backgroundImage = null;
         try {
             backgroundImage = ImageIO.read(Main.class.getResourceAsStream("/Title/title.jpg")); // Provide path to your image
+            backgroundImage = CompatibleImages.convert(backgroundImage, "/Title/title.jpg");
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -133,7 +138,8 @@ public class Main {
      * Starts the game with the selected difficulty level.
      * <p>
      * This method initializes the game environment and begins the game based on the chosen
-     * difficulty from the main menu. It sets up a new window for the game and loads the game
+     * difficulty from the main menu. It waits for the assets the preloader started loading
+     * when the menu came up, sets up a new window for the game and loads the game
      * panel configured with the selected difficulty.
      *
      * @param difficulty The difficulty level chosen by the player ("Easy", "Medium", or "Hard").
@@ -141,6 +147,7 @@ public class Main {
     private static void startGame(String difficulty) {
         // Implement your game startup logic here based on difficulty
         System.out.println("Starting game with difficulty: " + difficulty);
+        preloader.awaitLoaded();
         JFrame gameWindow = new JFrame();
         GamePanel gamePanel = new MainGamePanel();
         gamePanel.startGame(difficulty);
@@ -0,0 +1,89 @@
+package com.game.Tile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compiles text maps into the binary map format that {@link MapLoader} reads.
+ * <p>
+ * The build runs it on the copied resources after compiling, so every {@code mapNN.txt}
+ * gets a {@code mapNN.rcbmap} next to it. It can also be run by hand:
+ * {@code java com.game.Tile.MapConverter <map folder> [output folder]}.
+ */
+public final class MapConverter {
+
+    private MapConverter(){
+    }
+
+    /**
+     * Converts every {@code .txt} map in a folder.
+     *
+     * @param args the folder with the text maps, and optionally the folder to write the
+     *             binary maps to (the same folder by default)
+     * @throws IOException if a map cannot be read or written
+     * @throws IllegalArgumentException if no map folder is given; the build runs the
+     *         converter inside the Maven JVM, so it must not call {@link System#exit(int)}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: MapConverter <map folder> [output folder]");
+        }
+        Path input = Path.of(args[0]);
+        Path output = args.length > 1 ? Path.of(args[1]) : input;
+        Files.createDirectories(output);
+        try (DirectoryStream<Path> maps = Files.newDirectoryStream(input, "*.txt")) {
+            for (Path map : maps) {
+                Path binary = output.resolve(MapLoader.binaryName(map.getFileName().toString()));
+                int[][] tiles = convert(map, binary);
+                System.out.println("Converted " + map.getFileName() + " (" + tiles.length + "x" + tiles[0].length
+                        + ") to " + binary.getFileName());
+            }
+        }
+    }
+
+    /**
+     * Converts one text map.
+     *
+     * @param textMap the text map to read
+     * @param binaryMap the binary map to write
+     * @return the converted map, indexed {@code [col][row]}
+     * @throws IOException if the map cannot be read or written
+     */
+    public static int[][] convert(Path textMap, Path binaryMap) throws IOException {
+        int[][] map;
+        try (BufferedReader br = Files.newBufferedReader(textMap)) {
+            map = MapLoader.readText(br);
+        }
+        write(map, binaryMap);
+        return map;
+    }
+
+    /**
+     * Writes a map in the binary map format.
+     *
+     * @param map the map, indexed {@code [col][row]}
+     * @param binaryMap the file to write
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if a tile number does not fit in a byte
+     */
+    public static void write(int[][] map, Path binaryMap) throws IOException {
+        int cols = map.length;
+        int rows = map[0].length;
+        ByteBuffer buffer = ByteBuffer.allocate(MapLoader.HEADER_BYTES + cols * rows);
+        buffer.putInt(MapLoader.MAGIC).putInt(MapLoader.VERSION).putInt(cols).putInt(rows);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int tile = map[col][row];
+                if (tile < 0 || tile > 255) {
+                    throw new IllegalArgumentException("Tile " + tile + " at " + col + "," + row + " does not fit in a byte");
+                }
+                buffer.put((byte) tile);
+            }
+        }
+        Files.write(binaryMap, buffer.array());
+    }
+}
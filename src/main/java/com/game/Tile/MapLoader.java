@@ -0,0 +1,198 @@
+package com.game.Tile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads map files and keeps the maps it read, so each file is read only once.
+ * <p>
+ * Maps are written as text, one line per row with the tile numbers of the row separated
+ * by spaces. The build compiles every text map into a binary {@code .rcbmap} file next to
+ * it (see {@link MapConverter}), and the loader prefers that file when it is there. A binary
+ * map is a 16-byte header, the magic number {@code RCBM}, the format version, the number of
+ * columns and the number of rows as big-endian ints, followed by one byte per tile, row by
+ * row. It is read through a memory-mapped {@link FileChannel} when the map is a plain file,
+ * or from the resource stream when it is packed in a jar, without creating any strings.
+ * <p>
+ * The loader is thread-safe; maps can be preloaded on worker threads while the title menu
+ * is shown, and a {@link TileManager} asking for a map that is still being read waits for
+ * it instead of reading it again.
+ */
+public final class MapLoader {
+    /** The first four bytes of a binary map, {@code RCBM} in ASCII. */
+    public static final int MAGIC = 0x5243424D;
+    /** The version of the binary map format. */
+    public static final int VERSION = 1;
+    /** The size of the binary map header in bytes. */
+    public static final int HEADER_BYTES = 16;
+    /** The file extension of binary maps. */
+    public static final String EXTENSION = ".rcbmap";
+
+    private static final MapLoader shared = new MapLoader();
+
+    private final Map<String, int[][]> maps = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the loader shared by the whole game.
+     *
+     * @return the shared loader
+     */
+    public static MapLoader shared(){
+        return shared;
+    }
+
+    /**
+     * Returns the tile numbers of a map. The map is as large as its file says: the size in
+     * the header of a binary map, or the number of rows and columns of a text map.
+     *
+     * @param resource the classpath resource of the text map, for example {@code /Maps/map01.txt};
+     *                 its binary version is used instead if there is one
+     * @return a copy of the map that the caller may change, indexed {@code [col][row]}
+     * @throws IOException if the map cannot be read
+     */
+    public int[][] load(String resource) throws IOException {
+        int[][] map;
+        try {
+            map = maps.computeIfAbsent(resource, MapLoader::read);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        int[][] copy = new int[map.length][];
+        for (int col = 0; col < map.length; col++) {
+            copy[col] = map[col].clone();
+        }
+        return copy;
+    }
+
+    private static int[][] read(String resource){
+        try {
+            URL binary = MapLoader.class.getResource(binaryName(resource));
+            if (binary != null) {
+                return readBinary(binary);
+            }
+            InputStream is = MapLoader.class.getResourceAsStream(resource);
+            if (is == null) {
+                throw new IOException("No map resource " + resource);
+            }
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
+                return readText(br);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the name of the binary version of a text map.
+     *
+     * @param textMap the name of the text map, for example {@code map01.txt}
+     * @return the name with its extension replaced by {@link #EXTENSION}
+     */
+    public static String binaryName(String textMap){
+        int dot = textMap.lastIndexOf('.');
+        int slash = textMap.lastIndexOf('/');
+        return (dot > slash ? textMap.substring(0, dot) : textMap) + EXTENSION;
+    }
+
+    private static int[][] readBinary(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return readBinary(Path.of(url.toURI()));
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // not a plain file path after all; read the stream below
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            return decode(ByteBuffer.wrap(in.readAllBytes()), url.toString());
+        }
+    }
+
+    /**
+     * Reads a binary map file through a memory-mapped channel.
+     *
+     * @param file the binary map
+     * @return the map, indexed {@code [col][row]}
+     * @throws IOException if the file cannot be read or is not a binary map
+     */
+    public static int[][] readBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.toString());
+        }
+    }
+
+    private static int[][] decode(ByteBuffer buffer, String name) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException(name + " is not a binary map");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException(name + " has binary map version " + version + ", not " + VERSION);
+        }
+        int cols = buffer.getInt();
+        int rows = buffer.getInt();
+        if (cols <= 0 || rows <= 0 || buffer.remaining() < (long) cols * rows) {
+            throw new IOException(name + " is truncated or has a bad size " + cols + "x" + rows);
+        }
+        int[][] map = new int[cols][rows];
+        byte[] line = new byte[cols];
+        for (int row = 0; row < rows; row++) {
+            buffer.get(line);
+            for (int col = 0; col < cols; col++) {
+                map[col][row] = line[col] & 0xFF;
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Parses a text map. Each line is split once; blank lines are skipped.
+     *
+     * @param br the reader of the text map
+     * @return the map, indexed {@code [col][row]}
+     * @throws IOException if the map cannot be read, has no rows, or its rows differ in length
+     */
+    public static int[][] readText(BufferedReader br) throws IOException {
+        List<int[]> lines = new ArrayList<>();
+        String line;
+        while ((line = br.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String numbers[] = line.split(" +");
+            int[] tiles = new int[numbers.length];
+            for (int col = 0; col < numbers.length; col++) {
+                tiles[col] = Integer.parseInt(numbers[col]);
+            }
+            if (!lines.isEmpty() && tiles.length != lines.get(0).length) {
+                throw new IOException("Row " + lines.size() + " has " + tiles.length + " tiles, not "
+                        + lines.get(0).length);
+            }
+            lines.add(tiles);
+        }
+        if (lines.isEmpty()) {
+            throw new IOException("The map has no rows");
+        }
+        int[][] map = new int[lines.get(0).length][lines.size()];
+        for (int row = 0; row < lines.size(); row++) {
+            int[] tiles = lines.get(row);
+            for (int col = 0; col < tiles.length; col++) {
+                map[col][row] = tiles[col];
+            }
+        }
+        return map;
+    }
+}
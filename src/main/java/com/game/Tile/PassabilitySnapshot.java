@@ -0,0 +1,42 @@
+package com.game.Tile;
+
+import java.util.BitSet;
+
+/**
+ * An unchanging copy of a map's passability bitmap, together with the map version it was
+ * taken at.
+ * <p>
+ * The game thread takes snapshots with {@link TileManager#snapshotPassability()} and hands
+ * them to searches running on other threads, which can then read the map while the game
+ * thread keeps changing the tiles.
+ */
+public final class PassabilitySnapshot {
+    private final BitSet passable;
+    private final int cols, rows;
+    private final int version;
+
+    PassabilitySnapshot(BitSet passable, int cols, int rows, int version){
+        this.passable = passable;
+        this.cols = cols;
+        this.rows = rows;
+        this.version = version;
+    }
+
+    /**
+     * Checks whether a map cell could be walked on when the snapshot was taken.
+     *
+     * @param col The column of the cell.
+     * @param row The row of the cell.
+     * @return {@code true} if the cell is inside the map and its tile was steppable.
+     */
+    public boolean isPassable(int col, int row){
+        if (col < 0 || row < 0 || col >= cols || row >= rows) return false;
+        return passable.get(row * cols + col);
+    }
+
+    public int getCols(){return cols;}
+
+    public int getRows(){return rows;}
+
+    public int getVersion(){return version;}
+}
@@ -1,14 +1,19 @@
 package com.game.Tile;
 
 import com.game.GamePanel.MainGamePanel;
+import com.game.Utilities.CompatibleImages;
+import com.game.Utilities.SpriteCache;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
-import java.io.BufferedReader;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages and renders tiles for the game environment based on map configurations.
@@ -17,12 +22,42 @@ import java.util.Random;
  * configurations, and dynamically adjusting map elements such as introducing mysterious smoke tiles.
  * It supports rendering the entire tile set to the game panel and changing tile sprites dynamically
  * to reflect different game states or effects.
+ * <p>
+ * The world is as large as its map file and is split into square chunks of
+ * {@link #CHUNK_TILES} tiles. The tiles of a chunk are drawn once into an image, which every
+ * frame then copies to the screen in one call. Only the chunks inside the viewport of the
+ * {@link com.game.GamePanel.Camera} are drawn; their images are made when they come into
+ * view and dropped again when they are more than a chunk outside it, so the drawing time
+ * and the image memory depend on the viewport, not on the world. The tile numbers, the
+ * passability bitmap and the tile flags stay in memory for the whole world, since the path
+ * finders and collision checks need every cell; they take a few bytes per tile. A chunk is only redrawn after one of its tiles changed, and all of them after a new
+ * map was loaded or a tile sprite changed.
  */
 public class TileManager {
     private MainGamePanel gp;
     private Tile[] tile;
     private int mapTileNum[][];
+    private static final AtomicInteger versionCounter = new AtomicInteger();
+    /** The flag of a cell that can be walked on. */
+    public static final byte STEPPABLE = 1;
+    /** The flag of a cell that ends the level. */
+    public static final byte LEVEL_END = 2;
+    /** The flag of a mysterious smoke cell. */
+    public static final byte SMOKE = 4;
+    private BitSet passable; // one bit per map cell, set when the cell's tile is steppable
+    private byte[] tileFlags; // the STEPPABLE, LEVEL_END and SMOKE flags of each cell's tile
+    private volatile int mapVersion; // changes whenever the passability of any cell changes
+    private PassabilitySnapshot passabilitySnapshot; // the last snapshot handed out, reused while the map version holds
     private String mapDifficulty;
+    /** The width and height of a chunk in tiles. */
+    public static final int CHUNK_TILES = 8;
+    private final Map<Integer, BufferedImage> chunks = new HashMap<>(); // drawn chunks by index; render thread only
+    private final Queue<Integer> staleChunks = new ConcurrentLinkedQueue<>(); // chunks with a changed tile
+    private final AtomicInteger chunkSetVersion = new AtomicInteger(); // advanced when every chunk has to be redrawn
+    private int builtChunkSetVersion = -1;
+    private final AtomicInteger tileLayerVersion = new AtomicInteger(); // advanced when the map or a sprite changes
+    private int tileLayerBuilds = 0;
+    private int chunkBuilds = 0;
 
     /**
      * Constructs a TileManager with specified game panel and difficulty setting.
@@ -50,26 +85,28 @@ public class TileManager {
     public void getTileImage(){
         try{
             tile[0] = new FloorTile();
-            tile[0].setTileSprite(ImageIO.read(getClass().getResourceAsStream("/Tiles/Wood Floor.png")));
+            tile[0].setTileSprite(readTileSprite("Wood Floor"));
 
             tile[1] = new NotSteppableTile();
-            tile[1].setTileSprite(ImageIO.read(getClass().getResourceAsStream("/Tiles/start_door.png")));
+            tile[1].setTileSprite(readTileSprite("start_door"));
 
             tile[2] = new NotSteppableTile();
-            tile[2].setTileSprite(ImageIO.read(getClass().getResourceAsStream("/Tiles/locker.png")));
+            tile[2].setTileSprite(readTileSprite("locker"));
 
             tile[3] = new NotSteppableTile();
-            tile[3].setTileSprite(ImageIO.read(getClass().getResourceAsStream("/Tiles/bricks.png")));
+            tile[3].setTileSprite(readTileSprite("bricks"));
 
             tile[4] = new EndTile();
-            tile[4].setTileSprite(ImageIO.read(getClass().getResourceAsStream("/Tiles/end_door.png")));
+            tile[4].setTileSprite(readTileSprite("end_door"));
 
             tile[5] = new MysteriousSmokeTile();
-            tile[5].setTileSprite(ImageIO.read(getClass().getResourceAsStream("/Tiles/Wood Floor.png")));
+            tile[5].setTileSprite(readTileSprite("Wood Floor"));
 
         }catch(IOException e){
             e.printStackTrace();
         }
+        chunkSetVersion.incrementAndGet();
+        tileLayerVersion.incrementAndGet();
     }
 
     /**
@@ -83,108 +120,370 @@ public class TileManager {
      */
     public void setSpriteChange(int tileType, String filename){
         try{
-            tile[tileType].setTileSprite(ImageIO.read(getClass().getResourceAsStream("/Tiles/"+filename+".png")));
+            tile[tileType].setTileSprite(readTileSprite(filename));
         }catch(IOException e){
             e.printStackTrace();
         }
+        chunkSetVersion.incrementAndGet();
+        tileLayerVersion.incrementAndGet();
+    }
+
+    /**
+     * Reads a tile image in the screen's format from the shared {@link SpriteCache}, which
+     * decodes each image only once. The image keeps its original size; it is only scaled
+     * when the tile layer is drawn.
+     *
+     * @param filename The name of the image in the tiles folder, without extension.
+     * @return The tile image.
+     * @throws IOException if the image cannot be read.
+     */
+    private BufferedImage readTileSprite(String filename) throws IOException {
+        return SpriteCache.shared().getOriginal("/Tiles/" + filename + ".png");
     }
 
     /**
      * Loads the map configuration from a file based on the current difficulty setting.
      * <p>
-     * Reads a map layout file, assigning tile numbers to the map matrix to configure the
-     * game environment. It also introduces dynamic elements like mysterious smoke tiles
-     * based on random or predetermined conditions.
+     * Reads a map layout file through the shared {@link MapLoader}, which parses each file
+     * only once, assigning tile numbers to the map matrix to configure the game environment.
+     * The world is as large as the map file, not the screen. It also introduces dynamic elements like mysterious smoke tiles
+     * based on random or predetermined conditions. When the game panel's distance table is
+     * set to be precomputed, it is built for the loaded map here.
      */
     public void loadMap(){
         try{
-            InputStream is;
+            String map;
             if (this.mapDifficulty == "Easy"){
-                is = getClass().getResourceAsStream("/Maps/map01.txt");
+                map = "/Maps/map01.txt";
             }
             else if (this.mapDifficulty == "Medium") {
-                is = getClass().getResourceAsStream("/Maps/map02.txt");
+                map = "/Maps/map02.txt";
             }
             else if (this.mapDifficulty == "Hard"){
-                is = getClass().getResourceAsStream("/Maps/map03.txt");
+                map = "/Maps/map03.txt";
             }
             else{
-                is = getClass().getResourceAsStream("/Maps/map01.txt");
+                map = "/Maps/map01.txt";
             }
 
-            BufferedReader br = new BufferedReader(new InputStreamReader(is));
+            mapTileNum = MapLoader.shared().load(map);
 
-            int col = 0;
-            int row = 0;
             int numFloorTiles = 0;
-            while(col < gp.maxScreenCol && row < gp.maxScreeRow){
-                String line = br.readLine();
-                while(col < gp.maxScreenCol){
-                    String numbers[] = line.split(" ");
-
-                    int num = Integer.parseInt(numbers[col]);
+            for (int[] column : mapTileNum) {
+                for (int num : column) {
                     if (num == 0){
                         numFloorTiles++;
                     }
-                    mapTileNum[col][row] = num;
-                    col++;
-                }
-                if(col == gp.maxScreenCol){
-                    col = 0;
-                    row++;
                 }
             }
-            br.close();
-
-            //randomly placing a smoke tile
-            Random rand = new Random();
-            int floorTileToBeSmoke = rand.nextInt(numFloorTiles - 5 + 1) + 5;
-            numFloorTiles = 0;
-            for (int i = 0; i < mapTileNum.length; i++) {
-                for (int j = 0; j < mapTileNum[i].length ; j++) {
-                    if (mapTileNum[i][j] == 0){
-                        if (numFloorTiles == floorTileToBeSmoke){
-                            mapTileNum[i][j] = 5;
-                            return;
-                        }
-                        numFloorTiles++;
+            placeSmokeTile(numFloorTiles);
+        }catch(Exception e){
+        }
+        rebuildPassability();
+        precomputeDistances();
+        chunkSetVersion.incrementAndGet();
+        tileLayerVersion.incrementAndGet();
+    }
+
+    /**
+     * Loads a map from tile numbers instead of a map file, for example a generated maze.
+     * <p>
+     * No smoke tile is placed; the map is used as given.
+     *
+     * @param tileNums The tile number of every cell, indexed {@code [col][row]}.
+     */
+    public void loadMap(int[][] tileNums){
+        mapTileNum = tileNums;
+        rebuildPassability();
+        precomputeDistances();
+        chunkSetVersion.incrementAndGet();
+        tileLayerVersion.incrementAndGet();
+    }
+
+    /**
+     * Builds the game panel's distance table for the loaded map if it is set to be
+     * precomputed.
+     */
+    private void precomputeDistances(){
+        if (gp.distanceTable != null && gp.distanceTable.isPrecomputed()) {
+            gp.distanceTable.build(this);
+        }
+    }
+
+    /**
+     * Turns a randomly chosen floor tile into a mysterious smoke tile.
+     *
+     * @param numFloorTiles The number of floor tiles on the loaded map.
+     */
+    private void placeSmokeTile(int numFloorTiles){
+        Random rand = new Random();
+        int floorTileToBeSmoke = rand.nextInt(numFloorTiles - 5 + 1) + 5;
+        numFloorTiles = 0;
+        for (int i = 0; i < mapTileNum.length; i++) {
+            for (int j = 0; j < mapTileNum[i].length ; j++) {
+                if (mapTileNum[i][j] == 0){
+                    if (numFloorTiles == floorTileToBeSmoke){
+                        mapTileNum[i][j] = 5;
+                        return;
                     }
+                    numFloorTiles++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Recomputes the passability bitmap and the tile flags from the current map.
+     * <p>
+     * The bitmap lets the path finders test whether a cell can be walked on with a single
+     * bit lookup instead of going through the tile objects, and the flags do the same for
+     * the collision checks.
+     */
+    private void rebuildPassability(){
+        int cols = getMapCols();
+        int rows = getMapRows();
+        passable = new BitSet(cols * rows);
+        byte[] flags = new byte[cols * rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                flags[r * cols + c] = flagsOf(tile[mapTileNum[c][r]]);
+                if ((flags[r * cols + c] & STEPPABLE) != 0) {
+                    passable.set(r * cols + c);
                 }
             }
-        }catch(Exception e){
         }
+        tileFlags = flags;
+        mapVersion = versionCounter.incrementAndGet();
     }
 
     /**
-     * Renders the tiles to the game panel.
+     * Packs the properties of a tile type into flags.
+     *
+     * @param t The tile type, or {@code null} for a number without a tile type.
+     * @return The flags of the tile type; none for {@code null}.
+     */
+    private static byte flagsOf(Tile t){
+        if (t == null) {
+            return 0;
+        }
+        return (byte) ((t.tileSteppable() ? STEPPABLE : 0) | (t.isLevelEnd() ? LEVEL_END : 0)
+                | (t.isMysteriousSmokeTile() ? SMOKE : 0));
+    }
+
+    /**
+     * Changes the tile type of a single map cell and keeps the passability bitmap and the
+     * tile flags in sync.
      * <p>
-     * Draws the tile set to the screen based on the current map configuration, handling
-     * the positioning and rendering of each tile according to its location in the map matrix.
+     * The map version is advanced when the cell's passability changes, so cached paths
+     * and distance fields built for the old map are planned again.
+     *
+     * @param col The column of the cell.
+     * @param row The row of the cell.
+     * @param tileNum The index of the new tile type.
+     */
+    public void setTileNum(int col, int row, int tileNum){
+        boolean changed = mapTileNum[col][row] != tileNum;
+        mapTileNum[col][row] = tileNum;
+        if (changed) {
+            staleChunks.add((row / CHUNK_TILES) * getChunkCols() + col / CHUNK_TILES);
+            tileLayerVersion.incrementAndGet();
+        }
+        int cell = row * getMapCols() + col;
+        tileFlags[cell] = flagsOf(tile[tileNum]);
+        boolean steppable = (tileFlags[cell] & STEPPABLE) != 0;
+        if (passable.get(cell) != steppable) {
+            passable.set(cell, steppable);
+            mapVersion = versionCounter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Checks whether a map cell can be walked on.
+     *
+     * @param col The column of the cell.
+     * @param row The row of the cell.
+     * @return {@code true} if the cell is inside the map and its tile is steppable.
+     */
+    public boolean isPassable(int col, int row){
+        if (col < 0 || row < 0 || col >= getMapCols() || row >= getMapRows()) return false;
+        return passable.get(row * getMapCols() + col);
+    }
+
+    /**
+     * Renders the tiles at the top left of the world to the game panel.
      *
      * @param g2 The Graphics2D object used for drawing.
      */
     public void draw(Graphics2D g2){
-        int col = 0;
-        int row = 0;
-        int x = 0;
-        int y = 0;
-
-        while (col < gp.maxScreenCol && row < gp.maxScreeRow){
-            int tileNum = mapTileNum[col][row];
-            g2.drawImage(tile[tileNum].getTileSprite(),x,y,gp.tileSize,gp.tileSize,null);
-            col++;
-            x += gp.tileSize;
-            if(col == gp.maxScreenCol){
-                col = 0;
-                x = 0;
-                row++;
-                y += gp.tileSize;
+        draw(g2, 0, 0);
+    }
+
+    /**
+     * Renders the tiles in the viewport to the game panel.
+     * <p>
+     * Copies the images of the chunks the viewport overlaps to the screen, drawing those that
+     * are not drawn yet or whose tiles changed, and drops the images of chunks that are more
+     * than a chunk away from the viewport.
+     *
+     * @param g2 The Graphics2D object used for drawing.
+     * @param originX The world X position, in pixels, shown at the left edge of the screen.
+     * @param originY The world Y position, in pixels, shown at the top edge of the screen.
+     */
+    public void draw(Graphics2D g2, int originX, int originY){
+        int version = chunkSetVersion.get(); // read first, so a change made while drawing is not lost
+        if (version != builtChunkSetVersion) {
+            chunks.clear();
+            builtChunkSetVersion = version;
+        }
+        Integer stale;
+        while ((stale = staleChunks.poll()) != null) {
+            chunks.remove(stale);
+        }
+
+        int chunkSize = CHUNK_TILES * gp.tileSize;
+        int chunkCols = getChunkCols();
+        int firstCol = Math.max(0, Math.floorDiv(originX, chunkSize));
+        int firstRow = Math.max(0, Math.floorDiv(originY, chunkSize));
+        int lastCol = Math.min(chunkCols - 1, Math.floorDiv(originX + gp.screenWidth - 1, chunkSize));
+        int lastRow = Math.min(getChunkRows() - 1, Math.floorDiv(originY + gp.screenHeight - 1, chunkSize));
+        boolean built = false;
+        for (int chunkRow = firstRow; chunkRow <= lastRow; chunkRow++) {
+            for (int chunkCol = firstCol; chunkCol <= lastCol; chunkCol++) {
+                int index = chunkRow * chunkCols + chunkCol;
+                BufferedImage chunk = chunks.get(index);
+                if (chunk == null) {
+                    chunk = renderChunk(chunkCol, chunkRow);
+                    chunks.put(index, chunk);
+                    built = true;
+                }
+                g2.drawImage(chunk, chunkCol * chunkSize - originX, chunkRow * chunkSize - originY, null);
+            }
+        }
+        if (built) {
+            tileLayerBuilds++;
+        }
+        chunks.keySet().removeIf(index -> index % chunkCols < firstCol - 1 || index % chunkCols > lastCol + 1
+                || index / chunkCols < firstRow - 1 || index / chunkCols > lastRow + 1);
+    }
+
+    /**
+     * Draws the tiles of one chunk into a new image, handling the positioning and scaling of
+     * each tile according to its location in the map matrix. Chunks at the right and bottom
+     * edges of the map may be smaller than the others. The image is created in the screen's
+     * format, so copying it is a plain accelerated blit.
+     *
+     * @param chunkCol The column of the chunk.
+     * @param chunkRow The row of the chunk.
+     * @return the image of the chunk
+     */
+    private BufferedImage renderChunk(int chunkCol, int chunkRow){
+        int firstCol = chunkCol * CHUNK_TILES;
+        int firstRow = chunkRow * CHUNK_TILES;
+        int cols = Math.min(CHUNK_TILES, getMapCols() - firstCol);
+        int rows = Math.min(CHUNK_TILES, getMapRows() - firstRow);
+        BufferedImage chunk = CompatibleImages.create(cols * gp.tileSize, rows * gp.tileSize, Transparency.OPAQUE);
+        Graphics2D g2 = chunk.createGraphics();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Tile t = tile[mapTileNum[firstCol + col][firstRow + row]];
+                g2.drawImage(t.getTileSprite(), col * gp.tileSize, row * gp.tileSize, gp.tileSize, gp.tileSize, null);
             }
         }
+        g2.dispose();
+        chunkBuilds++;
+        return chunk;
     }
 
+    private int getChunkCols(){return (getMapCols() + CHUNK_TILES - 1) / CHUNK_TILES;}
+
+    private int getChunkRows(){return (getMapRows() + CHUNK_TILES - 1) / CHUNK_TILES;}
+
+    /**
+     * Returns how many frames had to draw at least one chunk.
+     *
+     * @return the number of tile layer builds
+     */
+    public int getTileLayerBuilds(){return tileLayerBuilds;}
+
+    /**
+     * Returns how many chunk images have been drawn.
+     *
+     * @return the number of chunk builds
+     */
+    public int getChunkBuilds(){return chunkBuilds;}
+
+    /**
+     * Returns how many chunk images are kept. Only the chunks in and around the viewport
+     * of the last frame are kept.
+     *
+     * @return the number of chunk images
+     */
+    public int getLoadedChunkCount(){return chunks.size();}
+
+    /**
+     * Returns the version of the tile layer's content. It changes whenever the map or a
+     * tile sprite changes, so renderers can tell when the whole layer has to be shown again.
+     *
+     * @return the current tile layer version
+     */
+    public int getTileLayerVersion(){return tileLayerVersion.get();}
+
     public String getMapDifficulty(){return mapDifficulty;}
 
+    /**
+     * Returns a copy of the passability bitmap.
+     * <p>
+     * Bit {@code row * getMapCols() + col} is set when that cell can be walked on. Planners
+     * that keep state between frames compare copies to find the cells that changed.
+     *
+     * @return a copy of the bitmap
+     */
+    public BitSet getPassability(){return (BitSet) passable.clone();}
+
+    /**
+     * Returns an unchanging snapshot of the passability bitmap and the map version it
+     * belongs to, for searches that run on other threads.
+     * <p>
+     * Call this on the game thread, which is the one that changes the map. The same snapshot
+     * is returned until the passability changes, so taking one every frame copies nothing.
+     *
+     * @return the snapshot of the current passability
+     */
+    public PassabilitySnapshot snapshotPassability(){
+        if (passabilitySnapshot == null || passabilitySnapshot.getVersion() != mapVersion) {
+            passabilitySnapshot = new PassabilitySnapshot((BitSet) passable.clone(), getMapCols(), getMapRows(), mapVersion);
+        }
+        return passabilitySnapshot;
+    }
+
+    /**
+     * Returns the version of the map's passability.
+     * <p>
+     * Versions are unique across all tile managers, so a value remembered for one map is
+     * never mistaken for the current one after a new map is loaded.
+     *
+     * @return the current map version
+     */
+    public int getMapVersion(){return mapVersion;}
+
+    /**
+     * Returns the flags of a map cell.
+     *
+     * @param col The column of the cell.
+     * @param row The row of the cell.
+     * @return The {@link #STEPPABLE}, {@link #LEVEL_END} and {@link #SMOKE} flags of the cell's
+     *         tile; none for a cell outside the map.
+     */
+    public int getTileFlags(int col, int row){
+        int cols = mapTileNum.length;
+        if (col < 0 || row < 0 || col >= cols || row >= mapTileNum[0].length) return 0;
+        return tileFlags[row * cols + col];
+    }
+
+    public int getMapCols(){return mapTileNum.length;}
+
+    public int getMapRows(){return mapTileNum[0].length;}
+
     public int[][] getMapTileNum() {
         return mapTileNum;
     }
@@ -1,10 +1,12 @@
 package com.game.UI;
 
 import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.WorldSnapshot;
 
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.text.DecimalFormat;
 
 /**
@@ -20,11 +22,11 @@ public class UI{
     Font a40, a60, a80BIG;
     private boolean visibleText = false;
     private String words = "";
-    private int wordsTime = 0;
+    private double wordsTime = 0; // seconds the current message has been shown
     private double timer;
     DecimalFormat deForm = new DecimalFormat("#0.00");
     public boolean gameDone = false;
-    private static final int MAX_WORDSTIME = 45;
+    private static final double MAX_WORDSTIME = 45 / 60.0;
 
     /**
      * Constructs a UI manager for a specific game panel.
@@ -60,12 +62,80 @@ public class UI{
         visibleText = true;
     }
 
+    /**
+     * Advances the game timer and the display time of the current message by one
+     * simulation tick.
+     * <p>
+     * This runs on the simulation thread, so the timer counts game time no matter how
+     * often the screen is painted.
+     *
+     * @param seconds The length of a tick in seconds.
+     */
+    public void update(double seconds) {
+        if (gameDone) {
+            return;
+        }
+        timer += seconds;
+        if (visibleText) {
+            wordsTime += seconds;
+            if (wordsTime > MAX_WORDSTIME) {
+                wordsTime = 0;
+                visibleText = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the area of the score and the timer at the top of the screen.
+     *
+     * @return The bounds of the score and timer text.
+     */
+    public Rectangle getHudBounds() {
+        return new Rectangle(0, 0, gp.screenWidth, 60);
+    }
+
+    /**
+     * Returns the area where temporary messages are shown.
+     *
+     * @return The bounds of the message text.
+     */
+    public Rectangle getMessageBounds() {
+        return new Rectangle(gp.tileSize * 10, gp.tileSize * 11 - 30, gp.screenWidth - gp.tileSize * 10, 40);
+    }
+
+    public double getTimer() {
+        return timer;
+    }
+
+    /**
+     * Returns the message that is currently shown.
+     *
+     * @return The message, or {@code null} if none is shown.
+     */
+    public String getMessage() {
+        return visibleText ? words : null;
+    }
+
     /**
      * Draws UI elements such as the score, timer, and temporary messages on the screen.
      *
      * @param graphics The Graphics2D object used for drawing UI components.
      */
     public void draw(Graphics2D graphics) {
+        draw(graphics, gp.getHero().getScore(), timer, getMessage(), gameDone);
+    }
+
+    /**
+     * Draws the UI elements as they were when a snapshot of the world was taken.
+     *
+     * @param graphics The Graphics2D object used for drawing UI components.
+     * @param frame The snapshot to draw.
+     */
+    public void draw(Graphics2D graphics, WorldSnapshot frame) {
+        draw(graphics, frame.getScore(), frame.getTime(), frame.getMessage(), frame.isGameDone());
+    }
+
+    private void draw(Graphics2D graphics, int score, double time, String message, boolean gameDone) {
 
         if (gameDone) {
 
@@ -86,7 +156,7 @@ public class UI{
 
             graphics.setColor(Color.ORANGE);
 
-            endtext = "Your total score is " + gp.getHero().getScore() + " points.";
+            endtext = "Your total score is " + score + " points.";
             endtextlen = (int)graphics.getFontMetrics().getStringBounds(endtext, graphics).getWidth();
 
             // a = gp.screenWidth/2 - endtextlen/2;
@@ -96,7 +166,7 @@ public class UI{
             graphics.setFont(a80BIG);
             graphics.setColor(Color.GREEN);
 
-            endtext = "You took " + deForm.format(timer) + "s to escape RCB.";
+            endtext = "You took " + deForm.format(time) + "s to escape RCB.";
             endtextlen = (int)graphics.getFontMetrics().getStringBounds(endtext, graphics).getWidth();
 
             // a = gp.screenWidth/2 - endtextlen/2;
@@ -108,20 +178,13 @@ public class UI{
             graphics.setFont(a40);
             graphics.setColor(Color.WHITE);
 
-            graphics.drawString("Score = " + gp.getHero().getScore(), 150, 40);
+            graphics.drawString("Score = " + score, 150, 40);
 
-            timer += (double) 1 / 60;
-            graphics.drawString("Time:" + deForm.format(timer), gp.tileSize * 20, 40);
+            graphics.drawString("Time:" + deForm.format(time), gp.tileSize * 20, 40);
 
-            if (visibleText) {
+            if (message != null) {
                 graphics.setFont(graphics.getFont().deriveFont(24F));
-                graphics.drawString(words, gp.tileSize * 10, gp.tileSize * 11);
-
-                wordsTime++;
-                if (wordsTime > MAX_WORDSTIME) {
-                    wordsTime = 0;
-                    visibleText = false;
-                }
+                graphics.drawString(message, gp.tileSize * 10, gp.tileSize * 11);
             }
         }
     }
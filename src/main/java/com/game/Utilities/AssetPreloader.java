@@ -0,0 +1,105 @@
+package com.game.Utilities;
+
+import com.game.GamePanel.ScreenSetting;
+import com.game.Tile.MapLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes every sprite and parses every map on a small pool of worker threads, so that
+ * starting a game does not have to.
+ * <p>
+ * The preloader is started as soon as the title menu is up and fills the shared
+ * {@link SpriteCache} and {@link MapLoader}. By the time the player has picked a difficulty
+ * the characters, items, tiles and maps of all difficulties are usually loaded, and
+ * {@link #awaitLoaded()} returns at once. An asset that is still loading when the game asks
+ * for it is not loaded twice: the game waits for the worker that is loading it. The workers
+ * are daemon threads and stop once everything is loaded.
+ */
+public final class AssetPreloader {
+    /** The character and item sprites, drawn at tile size. */
+    static final String[] SPRITES = {
+            "/Hero/Student_left", "/Hero/Student_right",
+            "/Enemy/Zombie_left", "/Enemy/Zombie_right", "/Enemy/Bear_left", "/Enemy/Bear_right", "/Enemy/FailedExam",
+            "/Items/APlusPaper", "/Items/Bed", "/Items/Coffee", "/Items/PileOfBooks", "/Items/Vortex"
+    };
+    /** The tile images, kept at their original size. */
+    static final String[] TILES = {"Wood Floor", "start_door", "locker", "bricks", "end_door", "smoke"};
+    /** The maps of the three difficulties. */
+    static final String[] MAPS = {"/Maps/map01.txt", "/Maps/map02.txt", "/Maps/map03.txt"};
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final List<Future<?>> loads = new ArrayList<>();
+
+    private AssetPreloader(){
+    }
+
+    /**
+     * Starts loading all assets.
+     *
+     * @param threads the number of worker threads
+     * @return the running preloader
+     */
+    public static AssetPreloader start(int threads){
+        AssetPreloader preloader = new AssetPreloader();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "asset-preloader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String sprite : SPRITES) {
+            preloader.submit(workers, () -> SpriteCache.shared().get(sprite + ".png", ScreenSetting.tileSize, ScreenSetting.tileSize));
+        }
+        for (String tile : TILES) {
+            preloader.submit(workers, () -> SpriteCache.shared().getOriginal("/Tiles/" + tile + ".png"));
+        }
+        for (String map : MAPS) {
+            preloader.submit(workers, () -> MapLoader.shared().load(map));
+        }
+        workers.shutdown(); // the queued loads still run; the threads end afterwards
+        return preloader;
+    }
+
+    private void submit(ExecutorService workers, Callable<?> load){
+        loads.add(workers.submit(load));
+    }
+
+    /**
+     * Waits until every asset has been loaded. An asset that failed to load is reported
+     * and left to the game, which loads it again and handles the error as before.
+     */
+    public void awaitLoaded(){
+        for (Future<?> load : loads) {
+            try {
+                load.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                System.err.println("Could not preload an asset: " + e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Checks whether every asset has been loaded, without waiting.
+     *
+     * @return {@code true} if all loads have finished
+     */
+    public boolean isLoaded(){
+        for (Future<?> load : loads) {
+            if (!load.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
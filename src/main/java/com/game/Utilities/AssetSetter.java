@@ -38,7 +38,8 @@ public class AssetSetter {
      * <p>
      * Creates instances of various item types and sets their initial positions within
      * the game world. This method is called to populate the game environment with
-     * interactive or collectible items, enhancing the gameplay experience.
+     * interactive or collectible items, enhancing the gameplay experience. The game panel's
+     * {@link ItemGrid} is then rebuilt from the placed items.
      */
     public void setObject(String mapDifficulty) {
 
@@ -202,5 +203,6 @@ public class AssetSetter {
             item[15].setPosition(26, 15);
 
         }
+        gamePanel.itemGrid.rebuild(gamePanel.getItem(), gamePanel.tileM.getMapCols(), gamePanel.tileM.getMapRows());
     }
 }
@@ -4,8 +4,13 @@ import com.game.Characters.Character;
 import com.game.Characters.Enemy;
 import com.game.GamePanel.MainGamePanel;
 import com.game.Items.Item;
+import com.game.Items.ItemGrid;
 import com.game.Characters.Hero;
 import com.game.Key.Direction;
+import com.game.Tile.TileManager;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.game.Key.Direction.*;
 
@@ -35,7 +40,8 @@ public class CollisionChecker {
      * <p>
      * This method determines if moving in the current direction will result in a collision
      * with a non-steppable tile or trigger a special tile effect like ending the level or
-     * activating a mysterious smoke tile.
+     * activating a mysterious smoke tile. The two cells in front of the entity are looked up
+     * in the tile manager's packed tile flags, so no tile objects are touched.
      *
      * @param position The current position and solid area of the entity being checked.
      */
@@ -51,45 +57,46 @@ public class CollisionChecker {
         int entityTopRow = entityTopWorldY / gamePanel.tileSize;
         int entityBottomRow = entityBottomWorldY / gamePanel.tileSize;
 
-        int tileNum1 = 0, tileNum2 = 0;
+        TileManager tileM = gamePanel.tileM;
+        int flags1 = TileManager.STEPPABLE, flags2 = TileManager.STEPPABLE; // nothing is in the way without a direction
         if (position.currentDirection == UP) {
-            entityTopRow = (entityTopWorldY - position.movementSpeed) / gamePanel.tileSize;
-            tileNum1 = gamePanel.tileM.getMapTileNum()[entityLeftCol][entityTopRow];
-            tileNum2 = gamePanel.tileM.getMapTileNum()[entityRightCol][entityTopRow];
+            entityTopRow = (entityTopWorldY - position.getMovementStep()) / gamePanel.tileSize;
+            flags1 = tileM.getTileFlags(entityLeftCol, entityTopRow);
+            flags2 = tileM.getTileFlags(entityRightCol, entityTopRow);
         } else if (position.currentDirection == DOWN) {
-            entityBottomRow = (entityBottomWorldY + position.movementSpeed) / gamePanel.tileSize;
-            tileNum1 = gamePanel.tileM.getMapTileNum()[entityLeftCol][entityBottomRow];
-            tileNum2 = gamePanel.tileM.getMapTileNum()[entityRightCol][entityBottomRow];
+            entityBottomRow = (entityBottomWorldY + position.getMovementStep()) / gamePanel.tileSize;
+            flags1 = tileM.getTileFlags(entityLeftCol, entityBottomRow);
+            flags2 = tileM.getTileFlags(entityRightCol, entityBottomRow);
         } else if (position.currentDirection == LEFT) {
-            entityLeftCol = (entityLeftWorldX - position.movementSpeed) / gamePanel.tileSize;
-            tileNum1 = gamePanel.tileM.getMapTileNum()[entityLeftCol][entityTopRow];
-            tileNum2 = gamePanel.tileM.getMapTileNum()[entityLeftCol][entityBottomRow];
+            entityLeftCol = (entityLeftWorldX - position.getMovementStep()) / gamePanel.tileSize;
+            flags1 = tileM.getTileFlags(entityLeftCol, entityTopRow);
+            flags2 = tileM.getTileFlags(entityLeftCol, entityBottomRow);
         } else if (position.currentDirection == RIGHT) {
-            entityRightCol = (entityRightWorldX + position.movementSpeed) / gamePanel.tileSize;
-            tileNum1 = gamePanel.tileM.getMapTileNum()[entityRightCol][entityTopRow];
-            tileNum2 = gamePanel.tileM.getMapTileNum()[entityRightCol][entityBottomRow];
+            entityRightCol = (entityRightWorldX + position.getMovementStep()) / gamePanel.tileSize;
+            flags1 = tileM.getTileFlags(entityRightCol, entityTopRow);
+            flags2 = tileM.getTileFlags(entityRightCol, entityBottomRow);
         }
-        setPositionTags(tileNum1, tileNum2, position);
+        setPositionTags(flags1, flags2, position);
     }
 
     /**
      * Sets position tags based on interactions with specified tiles.
      *
-     * This method checks properties of two specified tiles within the game panel's tile manager
+     * This method tests the packed flags of two cells from the game panel's tile manager
      * and updates the given position object accordingly based on the tile properties.
      *
-     * @param tileNum1 The index of the first tile to check.
-     * @param tileNum2 The index of the second tile to check.
+     * @param flags1 The tile flags of the first cell to check.
+     * @param flags2 The tile flags of the second cell to check.
      * @param position The Position object to update based on tile interactions.
      */
-    private void setPositionTags(int tileNum1, int tileNum2, Position position){
-        if (!gamePanel.tileM.getTile()[tileNum1].tileSteppable() || !gamePanel.tileM.getTile()[tileNum2].tileSteppable()){
+    private void setPositionTags(int flags1, int flags2, Position position){
+        if ((flags1 & flags2 & TileManager.STEPPABLE) == 0){
             position.collisionOn = true;
         }
-        if (gamePanel.tileM.getTile()[tileNum1].isLevelEnd()  || gamePanel.tileM.getTile()[tileNum2].isLevelEnd()){
+        if (((flags1 | flags2) & TileManager.LEVEL_END) != 0){
             position.reachedEndOn = true;
         }
-        if(gamePanel.tileM.getTile()[tileNum1].isMysteriousSmokeTile() || gamePanel.tileM.getTile()[tileNum2].isMysteriousSmokeTile()){
+        if(((flags1 | flags2) & TileManager.SMOKE) != 0){
             position.mysteriousSmokeTileOn = true;
             gamePanel.ui.showMessage("Mysterious smoke tile hit!");
         }
@@ -99,7 +106,10 @@ public class CollisionChecker {
      * Checks for interactions with items in the game world.
      * <p>
      * Determines if the player or an enemy is colliding with any item on the map, potentially
-     * picking it up or triggering its effect depending on the game logic.
+     * picking it up or triggering its effect depending on the game logic. Only the items the
+     * game panel's {@link ItemGrid} has in the one to four tiles under the entity's solid
+     * area are looked at, and no solid area is changed, so the number of items on the map
+     * does not slow the check down.
      *
      * @param position The position of the entity checking for item interaction.
      * @param hero A boolean indicating if the entity is the hero (true) or not (false).
@@ -112,56 +122,47 @@ public class CollisionChecker {
         if (position.currentDirection == null)
             return index;
 
-        for (int i = 0; i < item.length; i++) {
-            if (item[i] != null) {
-
-                // calculate the solid area of the hero:
-                position.solidArea.x = position.getXPosition() + position.solidArea.x;
-                position.solidArea.y = position.getYPosition() + position.solidArea.y;
-
-                // calculate the solid area of the item:
-                item[i].solidArea.x = item[i].getXPosition() + item[i].solidArea.x;
-                item[i].solidArea.y = item[i].getYPosition() + item[i].solidArea.y;
-
-                if (position.currentDirection == UP) {
-                    position.solidArea.y -= position.movementSpeed;
-                } else if (position.currentDirection == DOWN) {
-                    position.solidArea.y += position.movementSpeed;
-                } else if (position.currentDirection == LEFT) {
-                    position.solidArea.x -= position.movementSpeed;
-                } else if (position.currentDirection == RIGHT) {
-                    position.solidArea.x += position.movementSpeed;
+        // the solid area of the entity where it is about to move; the solid areas of the
+        // entity and of the items are both offset by their default, so the offsets cancel
+        int left = position.getXPosition();
+        int top = position.getYPosition();
+        if (position.currentDirection == UP) {
+            top -= position.getMovementStep();
+        } else if (position.currentDirection == DOWN) {
+            top += position.getMovementStep();
+        } else if (position.currentDirection == LEFT) {
+            left -= position.getMovementStep();
+        } else if (position.currentDirection == RIGHT) {
+            left += position.getMovementStep();
+        }
+        int width = position.solidArea.width;
+        int height = position.solidArea.height;
+
+        List<Item> nearby = new ArrayList<>(4);
+        gamePanel.itemGrid.query(Math.floorDiv(left, gamePanel.tileSize), Math.floorDiv(top, gamePanel.tileSize),
+                Math.floorDiv(left + width - 1, gamePanel.tileSize), Math.floorDiv(top + height - 1, gamePanel.tileSize),
+                nearby);
+        int collidedSlot = -1;
+        for (Item candidate : nearby) {
+            int slot = candidate.getSlot();
+            if (slot < 0 || slot >= item.length || item[slot] != candidate) {
+                continue; // no longer in its slot
+            }
+            int itemLeft = candidate.getXPosition() + candidate.solidAreaDefaultX - position.solidAreaDefaultX;
+            int itemTop = candidate.getYPosition() + candidate.solidAreaDefaultY - position.solidAreaDefaultY;
+            boolean intersects = left < itemLeft + candidate.solidArea.width && itemLeft < left + width
+                    && top < itemTop + candidate.solidArea.height && itemTop < top + height;
+            if (intersects) {
+                if (candidate.collision) {
+                    position.collisionOn = true;
+                    collidedSlot = Math.max(collidedSlot, slot);
                 }
-                index = handleItemCollsion(position,i,index,hero,item);
-
-                position.solidArea.x = position.solidAreaDefaultX;
-                position.solidArea.y = position.solidAreaDefaultY;
-
-                item[i].solidArea.x = item[i].solidAreaDefaultX;
-                item[i].solidArea.y = item[i].solidAreaDefaultY;
+                if (hero && (index == 999 || slot > index))
+                    index = slot;
             }
         }
-        return index;
-    }
-
-    /**
-     * Handles collision between an entity and an item.
-     *
-     * @param position The position of the entity checking for item interaction.
-     * @param i        The index of the item being checked.
-     * @param index    The current index of the item interacted with.
-     * @param hero     A boolean indicating if the entity is the hero (true) or not (false).
-     * @param item    An array of items in the game world.
-     * @return The updated index of the item interacted with.
-     */
-    private int handleItemCollsion(Position position, int i, int index, boolean hero, Item[] item){
-        if (position.solidArea.intersects(item[i].solidArea)) {
-            if (item[i].collision) {
-                position.collisionOn = true;
-                gamePanel.ui.showMessage(item[i].itemType + " item collected!");
-            }
-            if (hero)
-                return i;
+        if (collidedSlot >= 0) {
+            gamePanel.ui.showMessage(item[collidedSlot].itemType + " item collected!");
         }
         return index;
     }
@@ -245,19 +246,19 @@ public class CollisionChecker {
             switch (hero.currentDirection) {
 
                 case UP:
-                    hero.solidArea.y -= hero.movementSpeed;
+                    hero.solidArea.y -= hero.getMovementStep();
                     index = checkInteract(hero,enemy);
                     break;
                 case DOWN:
-                    hero.solidArea.y += hero.movementSpeed;
+                    hero.solidArea.y += hero.getMovementStep();
                     index = checkInteract(hero,enemy);
                     break;
                 case LEFT:
-                    hero.solidArea.x -= hero.movementSpeed;
+                    hero.solidArea.x -= hero.getMovementStep();
                     index = checkInteract(hero,enemy);
                     break;
                 case RIGHT:
-                    hero.solidArea.x += hero.movementSpeed;
+                    hero.solidArea.x += hero.getMovementStep();
                     index = checkInteract(hero,enemy);
                     break;
             }
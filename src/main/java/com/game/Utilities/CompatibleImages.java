@@ -0,0 +1,123 @@
+package com.game.Utilities;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Creates images in the pixel format of the screen and converts loaded images to it.
+ * <p>
+ * Java2D copies an image to the screen with an accelerated blit loop only when the image
+ * has the screen's format; any other format, such as the byte layouts PNG files decode to,
+ * is converted pixel by pixel on every draw. Converting every sprite once when it is loaded
+ * keeps all drawing on the fast loops. Translucent images stay translucent and opaque ones
+ * become opaque, which is cheaper to draw. Without a screen (headless) images are converted
+ * to the integer RGB formats instead.
+ * <p>
+ * Every image passed to {@link #convert(BufferedImage, String)} is recorded by name, so a
+ * report of which images had to be converted can be printed at startup.
+ */
+public final class CompatibleImages {
+    private static final Map<String, String> converted = new ConcurrentSkipListMap<>(); // name -> formats
+    private static final Set<String> alreadyCompatible = new ConcurrentSkipListSet<>();
+
+    private CompatibleImages(){
+    }
+
+    /**
+     * Returns the configuration of the default screen.
+     *
+     * @return the configuration, or {@code null} when there is no screen
+     */
+    private static GraphicsConfiguration configuration(){
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+
+    /**
+     * Creates an empty image in the screen's format.
+     *
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param transparency {@link Transparency#OPAQUE}, {@link Transparency#BITMASK} or
+     *                     {@link Transparency#TRANSLUCENT}
+     * @return the new image
+     */
+    public static BufferedImage create(int width, int height, int transparency){
+        GraphicsConfiguration configuration = configuration();
+        if (configuration == null) {
+            return new BufferedImage(width, height,
+                    transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+        return configuration.createCompatibleImage(width, height, transparency);
+    }
+
+    /**
+     * Checks whether an image already has the format {@link #create(int, int, int)} would
+     * give it.
+     *
+     * @param image the image to check
+     * @return {@code true} if drawing the image needs no conversion
+     */
+    public static boolean isCompatible(BufferedImage image){
+        GraphicsConfiguration configuration = configuration();
+        if (configuration == null) {
+            int type = image.getTransparency() == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+            return image.getType() == type;
+        }
+        return image.getColorModel().equals(configuration.getColorModel(image.getTransparency()));
+    }
+
+    /**
+     * Converts an image to the screen's format, keeping its transparency.
+     *
+     * @param image the image to convert
+     * @param name the name of the image for the report, for example its resource path
+     * @return the converted image, or {@code image} itself if it already had the format
+     */
+    public static BufferedImage convert(BufferedImage image, String name){
+        if (isCompatible(image)) {
+            alreadyCompatible.add(name);
+            return image;
+        }
+        BufferedImage compatible = create(image.getWidth(), image.getHeight(), image.getTransparency());
+        Graphics2D g2 = compatible.createGraphics();
+        g2.setComposite(AlphaComposite.Src);
+        g2.drawImage(image, 0, 0, null);
+        g2.dispose();
+        converted.put(name, describe(image) + " -> " + describe(compatible));
+        return compatible;
+    }
+
+    private static String describe(BufferedImage image){
+        String transparency = switch (image.getTransparency()) {
+            case Transparency.OPAQUE -> "opaque";
+            case Transparency.BITMASK -> "bitmask";
+            default -> "translucent";
+        };
+        return transparency + " " + image.getColorModel().getPixelSize() + "-bit type " + image.getType();
+    }
+
+    /**
+     * Lists the images that were converted and those that already had the screen's format.
+     *
+     * @return the report as text, one image per line
+     */
+    public static String report(){
+        StringBuilder report = new StringBuilder();
+        report.append("Converted ").append(converted.size()).append(" images to the screen format");
+        for (Map.Entry<String, String> entry : converted.entrySet()) {
+            report.append(System.lineSeparator()).append("  converted: ").append(entry.getKey())
+                    .append(" (").append(entry.getValue()).append(')');
+        }
+        for (String name : alreadyCompatible) {
+            report.append(System.lineSeparator()).append("  already compatible: ").append(name);
+        }
+        return report.toString();
+    }
+}
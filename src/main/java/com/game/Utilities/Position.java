@@ -1,5 +1,6 @@
 package com.game.Utilities;
 
+import com.game.GamePanel.ScreenSetting;
 import com.game.Key.Direction;
 
 import javax.swing.*;
@@ -21,7 +22,9 @@ public class Position {
     protected Direction currentDirection; // The current movement direction of the entity
     protected Direction lastDirection; // The last movement direction of the entity
 
-    protected int movementSpeed; // The movement speed of the entity
+    protected int movementSpeed; // The movement speed of the entity, in pixels per tick at the default tick rate
+    private int movementStep = -1; // Pixels moved in the current tick, or -1 before the first tick
+    private int stepRemainder = 0; // Part of a pixel carried over to the next tick, in 1/tickRate pixels
     protected boolean collisionOn = false; // Flag indicating if a collision has occurred
     protected boolean reachedEndOn = false; // Flag indicating if the end of a level or segment has been reached
     protected boolean mysteriousSmokeTileOn = false; // Flag indicating if an effect from a mysterious smoke tile is active
@@ -67,6 +70,27 @@ public class Position {
     }
     public int getYPosition(){return this.Y;}
     public int getMovementSpeed(){return  this.movementSpeed;}
+
+    /**
+     * Works out how far the entity moves in the coming tick.
+     * <p>
+     * The movement speed is given per tick at {@link ScreenSetting#FPS} ticks per second; at
+     * other rates the step is scaled so the entity covers the same distance per second. The
+     * part of a pixel that does not fit in a whole step is carried over to the next tick.
+     *
+     * @param tickRate the number of simulation ticks per second
+     */
+    public void startTick(int tickRate){
+        int scaled = this.movementSpeed * ScreenSetting.FPS + this.stepRemainder;
+        this.movementStep = scaled / tickRate;
+        this.stepRemainder = scaled % tickRate;
+    }
+
+    /**
+     * Returns how many pixels the entity moves in the current tick; before the first
+     * {@link #startTick(int)} this is the movement speed.
+     */
+    public int getMovementStep(){return this.movementStep < 0 ? this.movementSpeed : this.movementStep;}
     public Direction getCurrentDirection(){return this.currentDirection;}
     public void setCurrentDirection(Direction d){this.currentDirection = d;}
     public Direction getLastDirection(){return this.lastDirection;}
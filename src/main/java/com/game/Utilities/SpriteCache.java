@@ -0,0 +1,186 @@
+package com.game.Utilities;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A process-wide cache of sprites, keyed by resource path and size.
+ * <p>
+ * Each image resource is decoded once, however many items or characters use it and at
+ * however many sizes. Every scaled sprite is drawn into a packed texture atlas, and the
+ * cache hands out sub-images of the atlas, so all sprites of the same size share one large
+ * image instead of each having their own. The atlas is packed in shelves: sprites are placed
+ * left to right in rows as tall as their tallest sprite. When an atlas is full another one
+ * is started; sprites larger than an atlas get an image of their own. Decoded images and
+ * atlases are in the screen's format (see {@link CompatibleImages}).
+ * <p>
+ * The cache is thread-safe. Concurrent requests for the same sprite decode and scale it
+ * only once. The sprites are shared, so callers must not draw into them.
+ */
+public final class SpriteCache {
+    private static final SpriteCache shared = new SpriteCache(1024);
+
+    private final int atlasSize;
+    private final Map<String, BufferedImage> decoded = new ConcurrentHashMap<>();
+    private final Map<String, BufferedImage> sprites = new ConcurrentHashMap<>();
+    private final List<BufferedImage> atlases = new ArrayList<>();
+    private int shelfX, shelfY, shelfHeight;
+    private long usedPixels;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong decodes = new AtomicLong();
+
+    /**
+     * Creates an empty cache. Most code uses the {@link #shared() shared} cache instead.
+     *
+     * @param atlasSize the width and height of each atlas image in pixels
+     */
+    public SpriteCache(int atlasSize){
+        this.atlasSize = atlasSize;
+    }
+
+    /**
+     * Returns the cache shared by the whole game.
+     *
+     * @return the shared cache
+     */
+    public static SpriteCache shared(){
+        return shared;
+    }
+
+    /**
+     * Returns an image resource scaled to the given size, decoding and scaling it the first
+     * time it is asked for.
+     *
+     * @param path the classpath resource of the image, for example {@code /Items/Coffee.png}
+     * @param width the width of the sprite
+     * @param height the height of the sprite
+     * @return the shared sprite
+     * @throws IOException if the resource cannot be decoded
+     * @throws IllegalArgumentException if there is no such resource
+     */
+    public BufferedImage get(String path, int width, int height) throws IOException {
+        String key = path + '@' + width + 'x' + height;
+        BufferedImage sprite = sprites.get(key);
+        if (sprite != null) {
+            hits.incrementAndGet();
+            return sprite;
+        }
+        try {
+            return sprites.computeIfAbsent(key, k -> {
+                misses.incrementAndGet();
+                return pack(decode(path), width, height);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns an image resource at its original size, decoding it the first time it is
+     * asked for.
+     *
+     * @param path the classpath resource of the image
+     * @return the shared decoded image, in the screen's format
+     * @throws IOException if the resource cannot be decoded
+     * @throws IllegalArgumentException if there is no such resource
+     */
+    public BufferedImage getOriginal(String path) throws IOException {
+        try {
+            return decode(path);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private BufferedImage decode(String path){
+        return decoded.computeIfAbsent(path, p -> {
+            InputStream in = SpriteCache.class.getResourceAsStream(p);
+            if (in == null) {
+                throw new IllegalArgumentException("No image resource " + p);
+            }
+            try (in) {
+                BufferedImage image = ImageIO.read(in);
+                if (image == null) {
+                    throw new IOException("Unsupported image format: " + p);
+                }
+                decodes.incrementAndGet();
+                return CompatibleImages.convert(image, p);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Scales an image into the next free place of the atlas and returns that place.
+     */
+    private synchronized BufferedImage pack(BufferedImage image, int width, int height){
+        if (width > atlasSize || height > atlasSize) {
+            BufferedImage own = CompatibleImages.create(width, height, Transparency.TRANSLUCENT);
+            draw(image, own, 0, 0, width, height);
+            return own;
+        }
+        if (shelfX + width > atlasSize) {
+            shelfX = 0;
+            shelfY += shelfHeight;
+            shelfHeight = 0;
+        }
+        if (atlases.isEmpty() || shelfY + height > atlasSize) {
+            atlases.add(CompatibleImages.create(atlasSize, atlasSize, Transparency.TRANSLUCENT));
+            shelfX = 0;
+            shelfY = 0;
+            shelfHeight = 0;
+        }
+        BufferedImage atlas = atlases.get(atlases.size() - 1);
+        draw(image, atlas, shelfX, shelfY, width, height);
+        BufferedImage sprite = atlas.getSubimage(shelfX, shelfY, width, height);
+        shelfX += width;
+        shelfHeight = Math.max(shelfHeight, height);
+        usedPixels += (long) width * height;
+        return sprite;
+    }
+
+    private static void draw(BufferedImage image, BufferedImage target, int x, int y, int width, int height){
+        Graphics2D g2 = target.createGraphics();
+        g2.drawImage(image, x, y, width, height, null);
+        g2.dispose();
+    }
+
+    public long getHits(){return hits.get();}
+
+    public long getMisses(){return misses.get();}
+
+    /**
+     * Returns how many image resources have been decoded.
+     *
+     * @return the number of decodes
+     */
+    public long getDecodes(){return decodes.get();}
+
+    public synchronized int getAtlasCount(){return atlases.size();}
+
+    /**
+     * Describes the cache statistics in one line.
+     *
+     * @return the statistics as text
+     */
+    public synchronized String report(){
+        long requests = hits.get() + misses.get();
+        return String.format("sprites: %d  requests: %d  hits: %d (%.0f%%)  decodes: %d  atlases: %d x %dpx (%.1f%% used)",
+                sprites.size(), requests, hits.get(), requests == 0 ? 0 : 100.0 * hits.get() / requests,
+                decodes.get(), atlases.size(), atlasSize,
+                atlases.isEmpty() ? 0 : 100.0 * usedPixels / ((long) atlases.size() * atlasSize * atlasSize));
+    }
+}
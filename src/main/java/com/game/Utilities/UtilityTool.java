@@ -2,7 +2,6 @@ package com.game.Utilities;
 
 import com.game.GamePanel.MainGamePanel;
 
-import javax.imageio.ImageIO;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -29,7 +28,7 @@ public class UtilityTool {
          * @param h The desired height of the scaled image.
          * @return A new {@link BufferedImage} instance scaled to the specified dimensions.
          */
-        BufferedImage Image = new BufferedImage(w,h,image.getType());
+        BufferedImage Image = CompatibleImages.create(w,h,image.getTransparency());
         Graphics2D i2 = Image.createGraphics();
         i2.drawImage(image, 0,0,w,h,null);
         i2.dispose();
@@ -39,16 +38,17 @@ public class UtilityTool {
 
     /**
      * Sets the image for the character based on the provided name.
+     * <p>
+     * The image comes from the shared {@link SpriteCache}, so each resource is decoded and
+     * scaled only once and the returned image is shared; it must not be drawn into.
      *
      * @param name the name of the image resource
      * @return the scaled BufferedImage of the character
      */
     public BufferedImage setImage(String name, MainGamePanel gamePanel){
         BufferedImage image = null;
-        UtilityTool uTool = new UtilityTool();
         try{
-            image = ImageIO.read(getClass().getResourceAsStream( name + ".png"));
-            image = uTool.scaleImage(image, gamePanel.tileSize,gamePanel.tileSize);
+            image = SpriteCache.shared().get(name + ".png", gamePanel.tileSize, gamePanel.tileSize);
 
         }catch(IOException e){
             e.printStackTrace();
@@ -0,0 +1,46 @@
+/**
+ * Timing shared by the {@code *Benchmark} classes.
+ * <p>
+ * The benchmarks are not part of the regular test run, since their class names do not
+ * match the surefire test patterns. Run one explicitly with, for example,
+ * {@code mvn test -Dtest=PathFinderBenchmark}. Each benchmark warms up first and then
+ * prints the average time of the measured rounds.
+ */
+final class Benchmarks {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    /**
+     * A piece of work to time, which may throw the checked exception {@code E}.
+     */
+    interface Work<E extends Exception> {
+        void run() throws E;
+    }
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Runs the given work for the default number of warm-up rounds and returns the average
+     * duration of the default number of measured rounds in nanoseconds.
+     */
+    static <E extends Exception> long time(Work<E> work) throws E {
+        return time(WARMUP_ROUNDS, MEASURED_ROUNDS, work);
+    }
+
+    /**
+     * Runs the given work for a number of warm-up rounds and returns the average duration
+     * of the measured rounds in nanoseconds.
+     */
+    static <E extends Exception> long time(int warmupRounds, int measuredRounds, Work<E> work) throws E {
+        for (int i = 0; i < warmupRounds; i++) {
+            work.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < measuredRounds; i++) {
+            work.run();
+        }
+        return (System.nanoTime() - start) / measuredRounds;
+    }
+}
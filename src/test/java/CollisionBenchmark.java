@@ -0,0 +1,121 @@
+import com.game.GamePanel.MainGamePanel;
+import com.game.Key.Direction;
+import com.game.Tile.Tile;
+import com.game.Utilities.CollisionChecker;
+import com.game.Utilities.Position;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Micro-benchmarks for the {@link CollisionChecker}; see {@link Benchmarks} for how to run them.
+ */
+public class CollisionBenchmark {
+
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+    private static final Direction[] DIRECTIONS = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+    private static final int CHECKS = 10_000;
+
+    /**
+     * Times {@link CollisionChecker#checkTile(Position)}, which reads the packed tile flags,
+     * against looking the two tiles up through the tile objects as it was done before, on
+     * the same random positions and directions of map01 - map03.
+     */
+    @Test
+    public void tileFlagsAgainstTileObjects() {
+        for (String diff : DIFFICULTIES) {
+            MainGamePanel gamePanel = new MainGamePanel();
+            gamePanel.setupGame(diff);
+            CollisionChecker checker = gamePanel.collisionChecker;
+            Position[] positions = randomPositions(gamePanel, new Random(276));
+
+            for (Position position : positions) {
+                boolean blocked = (checkTileWithTileObjects(gamePanel, position) & 1) != 0;
+                checker.checkTile(position);
+                assertEquals(blocked, position.getCollisionOn());
+            }
+
+            long flagsNanos = Benchmarks.time(50, 200, () -> {
+                for (Position position : positions) {
+                    checker.checkTile(position);
+                }
+            });
+            long objectsNanos = Benchmarks.time(50, 200, () -> {
+                for (Position position : positions) {
+                    checkTileWithTileObjects(gamePanel, position);
+                }
+            });
+            System.out.printf("%-6s tile flags: %6.2f ns/check (%.1f M checks/s)   tile objects: %6.2f ns/check%n", diff,
+                    (double) flagsNanos / CHECKS, CHECKS * 1e3 / flagsNanos, (double) objectsNanos / CHECKS);
+        }
+    }
+
+    /**
+     * Makes positions with the hero's solid area at random places inside the map's border,
+     * each facing a random direction.
+     */
+    private static Position[] randomPositions(MainGamePanel gamePanel, Random random) {
+        Position[] positions = new Position[CHECKS];
+        int tileSize = gamePanel.tileSize;
+        for (int i = 0; i < CHECKS; i++) {
+            Position position = new Position();
+            position.solidArea = new Rectangle(0, 0, position.solidAreaDefaultX - 5, position.solidAreaDefaultY - 5);
+            position.setMovementSpeed(4);
+            position.setPosition(tileSize * 2 + random.nextInt(tileSize * (gamePanel.maxScreenCol - 4)),
+                    tileSize * 2 + random.nextInt(tileSize * (gamePanel.maxScreeRow - 4)));
+            position.setCurrentDirection(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+            positions[i] = position;
+        }
+        return positions;
+    }
+
+    /**
+     * The tile lookup of {@link CollisionChecker#checkTile(Position)} before the tile flags:
+     * the tile numbers of the two cells in front of the position, then virtual calls on their
+     * tile objects.
+     *
+     * @return 1 if the position is blocked, plus 2 if it reached the end of the level
+     */
+    private static int checkTileWithTileObjects(MainGamePanel gamePanel, Position position) {
+        int left = (position.getXPosition() + position.solidArea.x - 37) / gamePanel.tileSize;
+        int right = (position.getXPosition() + position.solidArea.x + position.solidArea.width - 57) / gamePanel.tileSize;
+        int top = (position.getYPosition() + position.solidArea.y - 47) / gamePanel.tileSize;
+        int bottom = (position.getYPosition() + position.solidArea.y + position.solidArea.height - 47) / gamePanel.tileSize;
+        int speed = position.getMovementSpeed();
+        int[][] map = gamePanel.tileM.getMapTileNum();
+        int tileNum1, tileNum2;
+        switch (position.getCurrentDirection()) {
+            case UP -> {
+                top = (position.getYPosition() + position.solidArea.y - 47 - speed) / gamePanel.tileSize;
+                tileNum1 = map[left][top];
+                tileNum2 = map[right][top];
+            }
+            case DOWN -> {
+                bottom = (position.getYPosition() + position.solidArea.y + position.solidArea.height - 47 + speed) / gamePanel.tileSize;
+                tileNum1 = map[left][bottom];
+                tileNum2 = map[right][bottom];
+            }
+            case LEFT -> {
+                left = (position.getXPosition() + position.solidArea.x - 37 - speed) / gamePanel.tileSize;
+                tileNum1 = map[left][top];
+                tileNum2 = map[left][bottom];
+            }
+            default -> {
+                right = (position.getXPosition() + position.solidArea.x + position.solidArea.width - 57 + speed) / gamePanel.tileSize;
+                tileNum1 = map[right][top];
+                tileNum2 = map[right][bottom];
+            }
+        }
+        Tile[] tiles = gamePanel.tileM.getTile();
+        boolean blocked = !tiles[tileNum1].tileSteppable() || !tiles[tileNum2].tileSteppable();
+        boolean end = tiles[tileNum1].isLevelEnd() || tiles[tileNum2].isLevelEnd();
+        if (tiles[tileNum1].isMysteriousSmokeTile() || tiles[tileNum2].isMysteriousSmokeTile()) {
+            gamePanel.ui.showMessage("Mysterious smoke tile hit!");
+        }
+        return (blocked ? 1 : 0) | (end ? 2 : 0);
+    }
+
+}
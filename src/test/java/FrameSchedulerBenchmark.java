@@ -0,0 +1,38 @@
+import com.game.GamePanel.FrameScheduler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the {@link FrameScheduler} on the real clock.
+ * <p>
+ * These are not part of the regular test run (the class name does not match the surefire
+ * test patterns), since they depend on how busy the machine is. Run them explicitly with
+ * {@code mvn test -Dtest=FrameSchedulerBenchmark}.
+ */
+public class FrameSchedulerBenchmark {
+
+    private static final int[] RATES = {60, 120, 240};
+    private static final int SECONDS = 2;
+
+    /**
+     * Runs the scheduler for a few seconds at several rates and prints how well it kept the
+     * rate, its jitter and how much of a core the waiting thread used.
+     */
+    @Test
+    public void pacingAndCpuLoad() {
+        for (int rate : RATES) {
+            FrameScheduler scheduler = new FrameScheduler(rate);
+            scheduler.start();
+            long start = System.nanoTime();
+            int ticks = 0;
+            while (ticks < rate * SECONDS) {
+                ticks += scheduler.awaitNextTick();
+            }
+            double elapsedMillis = (System.nanoTime() - start) / 1e6;
+            assertEquals(ticks, scheduler.getWindowTicks());
+            System.out.printf("%3d Hz: %d ticks in %.1f ms (expected %d ms)  %s%n", rate, ticks, elapsedMillis,
+                    SECONDS * 1000, scheduler.report());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import com.game.Tile.MapConverter;
+import com.game.Tile.MapLoader;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Micro-benchmarks for loading maps; see {@link Benchmarks} for how to run them.
+ */
+public class MapLoaderBenchmark {
+
+    private static final int[] SIZES = {256, 1024, 2048};
+    private static final int WARMUP_ROUNDS = 5; // the large maps take long to load, so fewer rounds
+    private static final int MEASURED_ROUNDS = 10;
+
+    /**
+     * Times reading a large generated map from its binary version through a memory-mapped
+     * channel, parsing its text once per line, and, for the smallest map, parsing its text by
+     * splitting the line again for every column as {@code TileManager.loadMap()} did before.
+     */
+    @Test
+    public void binaryAgainstTextMaps() throws IOException {
+        Path dir = Files.createTempDirectory("maps");
+        for (int size : SIZES) {
+            Path text = dir.resolve("map" + size + ".txt");
+            Path binary = dir.resolve(MapLoader.binaryName(text.getFileName().toString()));
+            writeTextMap(text, size);
+            int[][] expected = MapConverter.convert(text, binary);
+
+            double binaryMillis = Benchmarks.time(WARMUP_ROUNDS, MEASURED_ROUNDS,
+                    () -> assertArrayEquals(expected, MapLoader.readBinary(binary))) / 1e6;
+            double textMillis = Benchmarks.time(WARMUP_ROUNDS, MEASURED_ROUNDS, () -> {
+                try (BufferedReader br = Files.newBufferedReader(text)) {
+                    assertArrayEquals(expected, MapLoader.readText(br));
+                }
+            }) / 1e6;
+            System.out.printf("%dx%d map: binary %.2f ms, text %.2f ms%n", size, size, binaryMillis, textMillis);
+            if (size == SIZES[0]) {
+                double splitPerColumnMillis = Benchmarks.time(WARMUP_ROUNDS, MEASURED_ROUNDS, () -> {
+                    try (BufferedReader br = Files.newBufferedReader(text)) {
+                        assertArrayEquals(expected, splitPerColumn(br, size));
+                    }
+                }) / 1e6;
+                System.out.printf("%dx%d map: text split per column %.2f ms%n", size, size, splitPerColumnMillis);
+            }
+            Files.delete(text);
+            Files.delete(binary);
+        }
+        Files.delete(dir);
+    }
+
+    private static void writeTextMap(Path file, int size) throws IOException {
+        Random random = new Random(size);
+        StringBuilder map = new StringBuilder();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                map.append(col == 0 ? "" : " ").append(random.nextInt(6));
+            }
+            map.append('\n');
+        }
+        Files.writeString(file, map);
+    }
+
+    /**
+     * The text parsing of {@code TileManager.loadMap()} before binary maps.
+     */
+    private static int[][] splitPerColumn(BufferedReader br, int size) throws IOException {
+        int[][] map = new int[size][size];
+        int col = 0;
+        int row = 0;
+        while (col < size && row < size) {
+            String line = br.readLine();
+            while (col < size) {
+                String numbers[] = line.split(" ");
+                map[col][row] = Integer.parseInt(numbers[col]);
+                col++;
+            }
+            if (col == size) {
+                col = 0;
+                row++;
+            }
+        }
+        return map;
+    }
+}
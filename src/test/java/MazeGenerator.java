@@ -0,0 +1,64 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates maze maps for the path finder tests and benchmarks, in the {@code [col][row]}
+ * layout of {@link com.game.Tile.TileManager#getMapTileNum()}.
+ */
+final class MazeGenerator {
+
+    static final int FLOOR = 0;
+    static final int WALL = 2;
+
+    private MazeGenerator() {
+    }
+
+    /**
+     * Carves a maze with a randomized depth-first search and then knocks out some of the
+     * remaining inner walls, so there are loops and open areas as well as corridors.
+     *
+     * @param cols the number of columns, best odd
+     * @param rows the number of rows, best odd
+     * @param openness the share of inner walls that is removed afterwards, from 0 to 1
+     * @param random the source of randomness
+     * @return the tile numbers of the maze
+     */
+    static int[][] generate(int cols, int rows, double openness, Random random) {
+        int[][] map = new int[cols][rows];
+        for (int[] column : map) {
+            Arrays.fill(column, WALL);
+        }
+        int[][] moves = {{0, -2}, {-2, 0}, {0, 2}, {2, 0}};
+        ArrayDeque<int[]> stack = new ArrayDeque<>();
+        map[1][1] = FLOOR;
+        stack.push(new int[]{1, 1});
+        while (!stack.isEmpty()) {
+            int[] cell = stack.peek();
+            int start = random.nextInt(moves.length);
+            boolean carved = false;
+            for (int i = 0; i < moves.length && !carved; i++) {
+                int[] move = moves[(start + i) % moves.length];
+                int col = cell[0] + move[0];
+                int row = cell[1] + move[1];
+                if (col > 0 && row > 0 && col < cols - 1 && row < rows - 1 && map[col][row] == WALL) {
+                    map[cell[0] + move[0] / 2][cell[1] + move[1] / 2] = FLOOR;
+                    map[col][row] = FLOOR;
+                    stack.push(new int[]{col, row});
+                    carved = true;
+                }
+            }
+            if (!carved) {
+                stack.pop();
+            }
+        }
+        for (int col = 1; col < cols - 1; col++) {
+            for (int row = 1; row < rows - 1; row++) {
+                if (map[col][row] == WALL && random.nextDouble() < openness) {
+                    map[col][row] = FLOOR;
+                }
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,341 @@
+import com.game.Characters.Enemy;
+import com.game.Characters.EnemyMovement.DStarLite;
+import com.game.Characters.EnemyMovement.DistanceField;
+import com.game.Characters.EnemyMovement.DistanceTable;
+import com.game.Characters.EnemyMovement.HierarchicalPathFinder;
+import com.game.Characters.EnemyMovement.JumpPointFinder;
+import com.game.Characters.EnemyMovement.PathFinder;
+import com.game.GamePanel.MainGamePanel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Micro-benchmarks for the {@link PathFinder}; see {@link Benchmarks} for how to run them.
+ */
+public class PathFinderBenchmark {
+
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+    private static final int QUERIES = 200;
+
+    /**
+     * Times {@link PathFinder#search()} on the same random start/goal pairs of map01 - map03
+     * and compares it with the linear-scan list search it replaced. The list search ignores
+     * walls and pre-fills every node's cost, as the old implementation did.
+     * The target for the A* search is under 10 us per query on map03.
+     */
+    @Test
+    public void aStarAgainstListScan() {
+        for (String diff : DIFFICULTIES) {
+            MainGamePanel gamePanel = new MainGamePanel();
+            gamePanel.setupGame(diff);
+            PathFinder pathFinder = gamePanel.pathFinder;
+            Enemy enemy = gamePanel.getEnemy();
+            int[][] queries = randomQueries(gamePanel, new Random(276));
+
+            int found = 0;
+            for (int[] q : queries) {
+                pathFinder.setNode(q[0], q[1], q[2], q[3], enemy);
+                if (pathFinder.search()) {
+                    assertTrue(pathFinder.pathList.size() >= Math.abs(q[0] - q[2]) + Math.abs(q[1] - q[3]));
+                    found++;
+                }
+            }
+
+            long aStarNanos = Benchmarks.time(() -> {
+                for (int[] q : queries) {
+                    pathFinder.setNode(q[0], q[1], q[2], q[3], enemy);
+                    pathFinder.search();
+                }
+            });
+            long listNanos = Benchmarks.time(() -> {
+                for (int[] q : queries) {
+                    ListScanSearch.search(gamePanel, q[0], q[1], q[2], q[3]);
+                }
+            });
+            System.out.printf("%-6s A*: %8.2f us/query (%d/%d reachable)   list: %8.2f us/query%n", diff,
+                    aStarNanos / 1000.0 / QUERIES, found, QUERIES, listNanos / 1000.0 / QUERIES);
+        }
+    }
+
+    /**
+     * Times the {@link JumpPointFinder} against plain A* on generated mazes of up to 501x501
+     * cells, from pure corridors to mostly open floor. Fewer queries are run per maze than
+     * on the game maps, since a single search on the largest maze can visit every cell.
+     */
+    @Test
+    public void jumpPointAgainstAStarOnMazes() {
+        int[] sizes = {101, 251, 501};
+        double[] openness = {0.0, 0.2, 0.6};
+        MainGamePanel gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        Enemy enemy = gamePanel.getEnemy();
+        PathFinder aStar = gamePanel.pathFinder;
+        JumpPointFinder jumpPoint = gamePanel.jumpPointFinder;
+        for (int size : sizes) {
+            for (double open : openness) {
+                gamePanel.tileM.loadMap(MazeGenerator.generate(size, size, open, new Random(size)));
+                int[][] queries = new int[20][];
+                Random random = new Random(276);
+                for (int i = 0; i < queries.length; i++) {
+                    int[] start = randomPassableCell(gamePanel, random);
+                    int[] goal = randomPassableCell(gamePanel, random);
+                    queries[i] = new int[]{start[0], start[1], goal[0], goal[1]};
+                }
+
+                for (int[] q : queries) {
+                    aStar.setNode(q[0], q[1], q[2], q[3], enemy);
+                    boolean found = aStar.search();
+                    jumpPoint.setNode(q[0], q[1], q[2], q[3], enemy);
+                    assertEquals(found, jumpPoint.search());
+                    assertEquals(aStar.getPathLength(), jumpPoint.getPathLength());
+                }
+
+                long aStarNanos = Benchmarks.time(() -> {
+                    for (int[] q : queries) {
+                        aStar.setNode(q[0], q[1], q[2], q[3], enemy);
+                        aStar.search();
+                    }
+                });
+                long jumpPointNanos = Benchmarks.time(() -> {
+                    for (int[] q : queries) {
+                        jumpPoint.setNode(q[0], q[1], q[2], q[3], enemy);
+                        jumpPoint.search();
+                    }
+                });
+                System.out.printf("%dx%d open %.1f  A*: %10.2f us/query   JPS: %10.2f us/query%n", size, size, open,
+                        aStarNanos / 1000.0 / queries.length, jumpPointNanos / 1000.0 / queries.length);
+            }
+        }
+    }
+
+    /**
+     * Times building the full {@link DistanceTable} of each game map and looking up the
+     * same random queries that {@link #aStarAgainstListScan()} searches.
+     */
+    @Test
+    public void distanceTableLookups() {
+        for (String diff : DIFFICULTIES) {
+            MainGamePanel gamePanel = new MainGamePanel();
+            gamePanel.setupGame(diff);
+            DistanceTable table = gamePanel.distanceTable;
+            int[][] queries = randomQueries(gamePanel, new Random(276));
+
+            long buildNanos = Benchmarks.time(() -> table.build(gamePanel.tileM));
+            long lookupNanos = Benchmarks.time(() -> {
+                for (int[] q : queries) {
+                    table.nextStep(q[0], q[1], q[2], q[3]);
+                }
+            });
+            System.out.printf("%-6s table build: %8.2f us   lookup: %8.3f us/query%n", diff,
+                    buildNanos / 1000.0, lookupNanos / 1000.0 / QUERIES);
+        }
+    }
+
+    /**
+     * Times one step of long-range pursuit on a generated 1025x1025 map: a next step from the
+     * {@link HierarchicalPathFinder} against a full A* search. The time to build the entrance
+     * graph is reported separately.
+     */
+    @Test
+    public void hierarchicalAgainstAStarOnLargeMap() {
+        MainGamePanel gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        Enemy enemy = gamePanel.getEnemy();
+        PathFinder aStar = gamePanel.pathFinder;
+        HierarchicalPathFinder hierarchical = gamePanel.hierarchicalPathFinder;
+        gamePanel.tileM.loadMap(MazeGenerator.generate(1025, 1025, 0.3, new Random(1025)));
+
+        long buildStart = System.nanoTime();
+        hierarchical.nextStep(1, 1, 1, 2);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        int[][] queries = new int[20][];
+        Random random = new Random(276);
+        for (int i = 0; i < queries.length; i++) {
+            int[] start = randomPassableCell(gamePanel, random);
+            int[] goal = randomPassableCell(gamePanel, random);
+            queries[i] = new int[]{start[0], start[1], goal[0], goal[1]};
+        }
+        long aStarNanos = Benchmarks.time(() -> {
+            for (int[] q : queries) {
+                aStar.setNode(q[0], q[1], q[2], q[3], enemy);
+                aStar.search();
+            }
+        });
+        long hierarchicalNanos = Benchmarks.time(() -> {
+            for (int[] q : queries) {
+                hierarchical.nextStep(q[0], q[1], q[2], q[3]);
+            }
+        });
+        System.out.printf("1025x1025  build: %8.2f ms (%d entrances)   A*: %10.2f us/query   HPA*: %10.2f us/query%n",
+                buildNanos / 1e6, hierarchical.getEntranceCount(),
+                aStarNanos / 1000.0 / queries.length, hierarchicalNanos / 1000.0 / queries.length);
+    }
+
+    /**
+     * Replays a chase on map03 in which both characters move, once replanned with
+     * {@link DStarLite} and once with a fresh A* search per step. The hero takes a random
+     * sequence of tile-to-tile moves over walkable cells, and, as in {@link Enemy#update()}
+     * with the default speeds, the enemy takes one tile along its planned path for every
+     * two of the hero's.
+     */
+    @Test
+    public void dStarLiteAgainstAStarOnMovingHeroAndEnemy() {
+        MainGamePanel gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        PathFinder pathFinder = gamePanel.pathFinder;
+        Enemy enemy = gamePanel.getEnemy();
+        int[][] walk = heroWalk(gamePanel, 1, 1, new Random(276));
+        int cols = gamePanel.tileM.getMapCols();
+
+        // the enemy's cell before each step of the chase, checked against the distance field
+        int[] enemyCells = new int[walk.length];
+        DStarLite checked = new DStarLite(gamePanel);
+        DistanceField distanceField = gamePanel.distanceField;
+        int enemyCell = 16 * cols + 25;
+        for (int i = 0; i < walk.length; i++) {
+            int[] hero = walk[i];
+            enemyCells[i] = enemyCell;
+            int next = checked.nextStep(enemyCell % cols, enemyCell / cols, hero[0], hero[1]);
+            if (next < 0) {
+                continue;
+            }
+            distanceField.update(hero[0], hero[1]);
+            assertEquals(distanceField.getDistance(enemyCell % cols, enemyCell / cols) - 1,
+                    distanceField.getDistance(next % cols, next / cols));
+            if (i % 2 == 1) {
+                enemyCell = next;
+            }
+        }
+
+        long[] expansions = new long[2];
+        long dStarNanos = Benchmarks.time(() -> {
+            DStarLite planner = new DStarLite(gamePanel);
+            for (int i = 0; i < walk.length; i++) {
+                planner.nextStep(enemyCells[i] % cols, enemyCells[i] / cols, walk[i][0], walk[i][1]);
+            }
+            expansions[0] = planner.getExpansions();
+        });
+        long aStarNanos = Benchmarks.time(() -> {
+            expansions[1] = 0;
+            for (int i = 0; i < walk.length; i++) {
+                pathFinder.setNode(enemyCells[i] % cols, enemyCells[i] / cols, walk[i][0], walk[i][1], enemy);
+                pathFinder.search();
+                expansions[1] += pathFinder.getStep();
+            }
+        });
+        System.out.printf("moving hero and enemy  D* Lite: %8.2f us/step (%d expansions)   A*: %8.2f us/step (%d expansions) over %d steps%n",
+                dStarNanos / 1000.0 / walk.length, expansions[0], aStarNanos / 1000.0 / walk.length, expansions[1], walk.length);
+    }
+
+    /**
+     * Generates a walk of {@link #QUERIES} steps, each one tile to a walkable neighbour.
+     */
+    private static int[][] heroWalk(MainGamePanel gamePanel, int col, int row, Random random) {
+        int[][] walk = new int[QUERIES][];
+        int[][] moves = {{0, -1}, {-1, 0}, {0, 1}, {1, 0}};
+        for (int i = 0; i < QUERIES; i++) {
+            int[] move = moves[random.nextInt(moves.length)];
+            if (gamePanel.tileM.isPassable(col + move[0], row + move[1])) {
+                col += move[0];
+                row += move[1];
+            }
+            walk[i] = new int[]{col, row};
+        }
+        return walk;
+    }
+
+    /**
+     * Picks random start/goal pairs, both on walkable cells of the loaded map.
+     */
+    private static int[][] randomQueries(MainGamePanel gamePanel, Random random) {
+        int[][] queries = new int[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            int[] start = randomPassableCell(gamePanel, random);
+            int[] goal = randomPassableCell(gamePanel, random);
+            queries[i] = new int[]{start[0], start[1], goal[0], goal[1]};
+        }
+        return queries;
+    }
+
+    private static int[] randomPassableCell(MainGamePanel gamePanel, Random random) {
+        while (true) {
+            int col = random.nextInt(gamePanel.tileM.getMapCols());
+            int row = random.nextInt(gamePanel.tileM.getMapRows());
+            if (gamePanel.tileM.isPassable(col, row)) {
+                return new int[]{col, row};
+            }
+        }
+    }
+
+
+    /**
+     * The open-list search that {@link PathFinder#search()} used before the binary heap: every
+     * step scans the whole list for the lowest F cost and removes the current node in O(n).
+     * Costs are pre-filled for the whole grid and walls are not taken into account.
+     */
+    private static final class ListScanSearch {
+
+        static int search(MainGamePanel gamePanel, int startCol, int startRow, int goalCol, int goalRow) {
+            int cols = gamePanel.maxScreenCol;
+            int rows = gamePanel.maxScreeRow;
+            int[] fCost = new int[cols * rows];
+            int[] parent = new int[cols * rows];
+            boolean[] open = new boolean[cols * rows];
+            boolean[] checked = new boolean[cols * rows];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    fCost[r * cols + c] = Math.abs(c - startCol) + Math.abs(r - startRow)
+                            + Math.abs(c - goalCol) + Math.abs(r - goalRow);
+                }
+            }
+            int start = startRow * cols + startCol;
+            int goal = goalRow * cols + goalCol;
+            ArrayList<Integer> openList = new ArrayList<>();
+            openList.add(start);
+            int current = start;
+
+            for (int step = 0; step < 8000; step++) {
+                checked[current] = true;
+                openList.remove(Integer.valueOf(current));
+                int col = current % cols;
+                int row = current / cols;
+                int[] neighbours = {
+                        row - 1 >= 0 ? current - cols : -1,
+                        col - 1 >= 0 ? current - 1 : -1,
+                        row + 1 < rows ? current + cols : -1,
+                        col + 1 < cols ? current + 1 : -1};
+                for (int n : neighbours) {
+                    if (n >= 0 && !open[n] && !checked[n]) {
+                        open[n] = true;
+                        parent[n] = current;
+                        openList.add(n);
+                    }
+                }
+                if (openList.isEmpty()) {
+                    return -1;
+                }
+                int best = 0;
+                for (int i = 0; i < openList.size(); i++) {
+                    if (fCost[openList.get(i)] < fCost[openList.get(best)]) {
+                        best = i;
+                    }
+                }
+                current = openList.get(best);
+                if (current == goal) {
+                    int length = 0;
+                    for (int n = goal; n != start; n = parent[n]) {
+                        length++;
+                    }
+                    return length;
+                }
+            }
+            return -1;
+        }
+    }
+}
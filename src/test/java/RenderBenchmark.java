@@ -0,0 +1,77 @@
+import com.game.GamePanel.MainGamePanel;
+import com.game.Tile.Tile;
+import com.game.Tile.TileManager;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Micro-benchmarks for drawing frames; see {@link Benchmarks} for how to run them.
+ */
+public class RenderBenchmark {
+
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+    private static final int FRAMES = 20;
+
+    /**
+     * Times {@link TileManager#draw(java.awt.Graphics2D)}, which copies the cached tile layer,
+     * against drawing and scaling every tile for every frame as it was done before.
+     */
+    @Test
+    public void cachedTileLayerAgainstPerTileDraw() {
+        for (String diff : DIFFICULTIES) {
+            MainGamePanel gamePanel = new MainGamePanel();
+            gamePanel.setupGame(diff);
+            TileManager tileM = gamePanel.tileM;
+            BufferedImage screen = screenImage(gamePanel);
+            Graphics2D g2 = screen.createGraphics();
+
+            long cachedNanos = Benchmarks.time(() -> {
+                for (int i = 0; i < FRAMES; i++) {
+                    tileM.draw(g2);
+                }
+            });
+            long perTileNanos = Benchmarks.time(() -> {
+                for (int i = 0; i < FRAMES; i++) {
+                    drawEveryTile(gamePanel, g2);
+                }
+            });
+            g2.dispose();
+            assertEquals(1, tileM.getTileLayerBuilds());
+
+            System.out.printf("%-6s cached layer: %8.2f us/frame   per tile: %8.2f us/frame%n", diff,
+                    cachedNanos / 1000.0 / FRAMES, perTileNanos / 1000.0 / FRAMES);
+        }
+    }
+
+    /**
+     * Creates an image like the screen the frames end up on.
+     */
+    private static BufferedImage screenImage(MainGamePanel gamePanel) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(gamePanel.screenWidth, gamePanel.screenHeight, BufferedImage.TYPE_INT_RGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                .createCompatibleImage(gamePanel.screenWidth, gamePanel.screenHeight, Transparency.OPAQUE);
+    }
+
+    /**
+     * Draws the map the way {@link TileManager#draw(java.awt.Graphics2D)} did before the tile
+     * layer was cached: one scaled image per tile.
+     */
+    private static void drawEveryTile(MainGamePanel gamePanel, Graphics2D g2) {
+        TileManager tileM = gamePanel.tileM;
+        for (int row = 0; row < gamePanel.maxScreeRow; row++) {
+            for (int col = 0; col < gamePanel.maxScreenCol; col++) {
+                Tile tile = tileM.getTile()[tileM.getMapTileNum()[col][row]];
+                g2.drawImage(tile.getTileSprite(), col * gamePanel.tileSize, row * gamePanel.tileSize,
+                        gamePanel.tileSize, gamePanel.tileSize, null);
+            }
+        }
+    }
+}
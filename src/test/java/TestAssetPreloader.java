@@ -0,0 +1,49 @@
+import com.game.GamePanel.MainGamePanel;
+import com.game.Tile.MapLoader;
+import com.game.Utilities.AssetPreloader;
+import com.game.Utilities.SpriteCache;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link AssetPreloader} that loads assets while the title menu is shown.
+ */
+public class TestAssetPreloader {
+
+    /**
+     * Tests that once the preloader is done, setting up a game of any difficulty decodes no
+     * more images.
+     */
+    @Test
+    void testGameStartsFromPreloadedAssets() {
+        AssetPreloader preloader = AssetPreloader.start(3);
+        preloader.awaitLoaded();
+        assertTrue(preloader.isLoaded());
+
+        long decodes = SpriteCache.shared().getDecodes();
+        for (String diff : new String[]{"Easy", "Medium", "Hard"}) {
+            MainGamePanel gamePanel = new MainGamePanel();
+            gamePanel.setupGame(diff);
+            gamePanel.tileM.setSpriteChange(5, "smoke");
+        }
+        assertEquals(decodes, SpriteCache.shared().getDecodes());
+    }
+
+    /**
+     * Tests that every caller gets its own copy of a cached map.
+     */
+    @Test
+    void testMapCopiesAreIndependent() throws IOException {
+        int[][] first = MapLoader.shared().load("/Maps/map01.txt");
+        int original = first[3][4];
+        first[3][4] = 99;
+        int[][] second = MapLoader.shared().load("/Maps/map01.txt");
+        assertEquals(original, second[3][4]);
+        assertEquals(28, second.length);
+        assertEquals(18, second[0].length);
+        assertThrows(IOException.class, () -> MapLoader.shared().load("/Maps/missing.txt"));
+    }
+}
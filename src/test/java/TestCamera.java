@@ -0,0 +1,100 @@
+import com.game.GamePanel.Camera;
+import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.WorldSnapshot;
+import com.game.Tile.TileManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link Camera} that follows the hero, and the chunks of a world larger than
+ * the screen.
+ */
+public class TestCamera {
+
+    private MainGamePanel gamePanel;
+    private TileManager tileM;
+
+    @BeforeEach
+    void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Easy");
+        tileM = gamePanel.tileM;
+    }
+
+    private WorldSnapshot heroAt(int col, int row) {
+        gamePanel.getHero().setPosition(col * gamePanel.tileSize, row * gamePanel.tileSize);
+        gamePanel.getHero().savePreviousPosition();
+        return WorldSnapshot.capture(gamePanel);
+    }
+
+    /**
+     * Tests that a world the size of the screen is always shown from its top left corner.
+     */
+    @Test
+    void testScreenSizedWorldDoesNotScroll() {
+        assertEquals(new Point(0, 0), gamePanel.getCamera().origin(heroAt(27, 17), 1));
+        assertEquals(new Point(0, 0), gamePanel.getCamera().origin(heroAt(14, 9), 1));
+    }
+
+    /**
+     * Tests that the camera keeps the hero in the middle of a large world and stops at its
+     * edges.
+     */
+    @Test
+    void testCameraFollowsHero() {
+        tileM.loadMap(new int[200][120]);
+        int tileSize = gamePanel.tileSize;
+        Point middle = gamePanel.getCamera().origin(heroAt(100, 60), 1);
+        assertEquals(100 * tileSize + tileSize / 2 - gamePanel.screenWidth / 2, middle.x);
+        assertEquals(60 * tileSize + tileSize / 2 - gamePanel.screenHeight / 2, middle.y);
+
+        assertEquals(new Point(0, 0), gamePanel.getCamera().origin(heroAt(1, 1), 1));
+        assertEquals(new Point(200 * tileSize - gamePanel.screenWidth, 120 * tileSize - gamePanel.screenHeight),
+                gamePanel.getCamera().origin(heroAt(199, 119), 1));
+    }
+
+    /**
+     * Tests that only the chunks in and around the viewport are kept while the camera moves
+     * across a large world, and that moving a little does not draw chunks again.
+     */
+    @Test
+    void testOnlyChunksNearViewportAreKept() {
+        tileM.loadMap(new int[400][400]);
+        int chunkSize = TileManager.CHUNK_TILES * gamePanel.tileSize;
+        int visibleCols = gamePanel.screenWidth / chunkSize + 2;
+        int visibleRows = gamePanel.screenHeight / chunkSize + 2;
+        int kept = (visibleCols + 2) * (visibleRows + 2);
+
+        BufferedImage screen = new BufferedImage(gamePanel.screenWidth, gamePanel.screenHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = screen.createGraphics();
+        for (int step = 0; step < 40; step++) {
+            tileM.draw(g2, step * 400, step * 350);
+            assertTrue(tileM.getLoadedChunkCount() <= kept, "kept " + tileM.getLoadedChunkCount() + " chunks");
+        }
+        int builds = tileM.getChunkBuilds();
+        tileM.draw(g2, 39 * 400 + 10, 39 * 350 + 10);
+        assertEquals(builds, tileM.getChunkBuilds());
+        g2.dispose();
+    }
+
+    /**
+     * Tests that changing one tile draws only its chunk again.
+     */
+    @Test
+    void testTileChangeRedrawsOneChunk() {
+        BufferedImage screen = new BufferedImage(gamePanel.screenWidth, gamePanel.screenHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = screen.createGraphics();
+        tileM.draw(g2);
+        int builds = tileM.getChunkBuilds();
+        tileM.setTileNum(12, 9, tileM.getMapTileNum()[12][9] == 3 ? 0 : 3);
+        tileM.draw(g2);
+        assertEquals(builds + 1, tileM.getChunkBuilds());
+        g2.dispose();
+    }
+}
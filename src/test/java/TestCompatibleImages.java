@@ -0,0 +1,58 @@
+import com.game.GamePanel.MainGamePanel;
+import com.game.Tile.Tile;
+import com.game.Tile.TileManager;
+import com.game.Utilities.CompatibleImages;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests converting images to the screen's format with {@link CompatibleImages}.
+ */
+public class TestCompatibleImages {
+
+    /**
+     * Tests that an image in another format is converted without changing its pixels or
+     * transparency, and that the conversion is reported.
+     */
+    @Test
+    void testConvertKeepsPixels() {
+        BufferedImage image = new BufferedImage(8, 8, BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(new Color(200, 40, 90, 128));
+        g2.fillRect(2, 2, 4, 4);
+        g2.dispose();
+        assertFalse(CompatibleImages.isCompatible(image));
+
+        BufferedImage converted = CompatibleImages.convert(image, "test-abgr");
+        assertNotSame(image, converted);
+        assertTrue(CompatibleImages.isCompatible(converted));
+        assertEquals(Transparency.TRANSLUCENT, converted.getTransparency());
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                assertEquals(image.getRGB(x, y), converted.getRGB(x, y));
+            }
+        }
+        assertSame(converted, CompatibleImages.convert(converted, "test-compatible"));
+        assertTrue(CompatibleImages.report().contains("converted: test-abgr"));
+        assertTrue(CompatibleImages.report().contains("already compatible: test-compatible"));
+    }
+
+    /**
+     * Tests that the tile sprites are in the screen's format once loaded.
+     */
+    @Test
+    void testTileSpritesAreCompatible() {
+        TileManager tileManager = new TileManager(new MainGamePanel(), "Easy");
+        for (Tile tile : tileManager.getTile()) {
+            if (tile != null) {
+                assertTrue(CompatibleImages.isCompatible(tile.getTileSprite()));
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import com.game.Characters.EnemyMovement.DStarLite;
+import com.game.Characters.EnemyMovement.DistanceField;
+import com.game.GamePanel.MainGamePanel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link DStarLite} planner that repairs its search as the hero and the map change.
+ */
+public class TestDStarLite {
+
+    private MainGamePanel gamePanel;
+    private DStarLite planner;
+
+    @BeforeEach
+    public void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        planner = new DStarLite(gamePanel);
+    }
+
+    /**
+     * Asserts that the planner's next step from the enemy's cell is one tile closer to the
+     * hero, using the {@link DistanceField} as the reference for shortest distances.
+     */
+    private void assertStepsCloser(int enemyCol, int enemyRow, int heroCol, int heroRow) {
+        DistanceField distanceField = gamePanel.distanceField;
+        distanceField.update(heroCol, heroRow);
+        int next = planner.nextStep(enemyCol, enemyRow, heroCol, heroRow);
+        assertNotEquals(-1, next);
+        int cols = distanceField.getCols();
+        assertEquals(1, Math.abs(next % cols - enemyCol) + Math.abs(next / cols - enemyRow));
+        assertEquals(distanceField.getDistance(enemyCol, enemyRow) - 1,
+                distanceField.getDistance(next % cols, next / cols));
+    }
+
+    /**
+     * Tests that the next step lies on a shortest path, also after the hero walked on.
+     */
+    @Test
+    public void testNextStepFollowsHero() {
+        assertStepsCloser(25, 16, 1, 1);
+        assertStepsCloser(25, 16, 2, 1);
+        assertStepsCloser(25, 16, 2, 2);
+        assertStepsCloser(25, 16, 14, 7);
+    }
+
+    /**
+     * Tests that moving the hero reuses the previous search instead of planning from scratch.
+     */
+    @Test
+    public void testHeroMoveRepairsSearch() {
+        planner.nextStep(25, 16, 1, 1);
+        long firstSearch = planner.getExpansions();
+
+        planner.nextStep(25, 16, 1, 2);
+        assertTrue(planner.getExpansions() - firstSearch < firstSearch);
+        assertEquals(-1, planner.nextStep(25, 16, 25, 16));
+    }
+
+    /**
+     * Tests that the enemy stepping along its path keeps the search instead of planning
+     * from scratch, and that the steps stay on a shortest path while the hero walks too.
+     */
+    @Test
+    public void testEnemyMoveRepairsSearch() {
+        int enemyCol = 25, enemyRow = 16;
+        int next = planner.nextStep(enemyCol, enemyRow, 1, 1);
+        long firstSearch = planner.getExpansions();
+        int cols = gamePanel.tileM.getMapCols();
+
+        enemyCol = next % cols;
+        enemyRow = next / cols;
+        assertStepsCloser(enemyCol, enemyRow, 1, 1);
+        assertTrue(planner.getExpansions() - firstSearch < firstSearch / 2);
+
+        int[][] heroWalk = {{2, 1}, {2, 2}, {2, 3}, {3, 3}, {3, 4}, {3, 5}, {4, 5}, {5, 5}};
+        for (int[] hero : heroWalk) {
+            next = planner.nextStep(enemyCol, enemyRow, hero[0], hero[1]);
+            enemyCol = next % cols;
+            enemyRow = next / cols;
+            assertStepsCloser(enemyCol, enemyRow, hero[0], hero[1]);
+        }
+    }
+
+    /**
+     * Tests that a tile becoming solid or walkable again changes the planned step.
+     */
+    @Test
+    public void testMapChangeRepairsSearch() {
+        assertStepsCloser(2, 16, 2, 10);
+        // blocking (2,15) closes the straight way up, so the enemy has to step sideways first
+        gamePanel.tileM.setTileNum(2, 15, 2);
+        assertStepsCloser(2, 16, 2, 10);
+        gamePanel.tileM.setTileNum(2, 15, 0);
+        assertStepsCloser(2, 16, 2, 10);
+    }
+}
@@ -0,0 +1,95 @@
+import com.game.GamePanel.DamageTracker;
+import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.WorldSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Rectangle;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link DamageTracker} that finds the regions the dirty-rectangle renderer redraws.
+ */
+public class TestDamageTracker {
+
+    private MainGamePanel gamePanel;
+    private DamageTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Easy");
+        tracker = new DamageTracker(gamePanel.screenWidth, gamePanel.screenHeight, gamePanel.tileSize, gamePanel.ui);
+    }
+
+    private static boolean covers(List<Rectangle> damage, Rectangle area) {
+        for (Rectangle region : damage) {
+            if (region.contains(area)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tests that the first frame and a new tile layer damage the whole screen, and that a
+     * frame without changes damages nothing.
+     */
+    @Test
+    void testFullAndEmptyDamage() {
+        WorldSnapshot frame = WorldSnapshot.capture(gamePanel);
+        assertEquals(List.of(new Rectangle(0, 0, gamePanel.screenWidth, gamePanel.screenHeight)),
+                tracker.track(frame, gamePanel.tileM));
+        assertEquals(1.0, tracker.getLastCoverage());
+
+        assertTrue(tracker.track(WorldSnapshot.capture(gamePanel), gamePanel.tileM).isEmpty());
+        assertEquals(0.0, tracker.getLastCoverage());
+
+        gamePanel.tileM.setTileNum(1, 1, 3);
+        assertEquals(1, tracker.track(WorldSnapshot.capture(gamePanel), gamePanel.tileM).size());
+        assertEquals(1.0, tracker.getLastCoverage());
+    }
+
+    /**
+     * Tests that a moving hero and a removed item damage only their own tiles.
+     */
+    @Test
+    void testMovedHeroAndRemovedItem() {
+        tracker.track(WorldSnapshot.capture(gamePanel), gamePanel.tileM);
+
+        int size = gamePanel.tileSize;
+        int x = gamePanel.getHero().getXPosition();
+        int y = gamePanel.getHero().getYPosition();
+        gamePanel.getHero().savePreviousPosition();
+        gamePanel.getHero().setPosition(x + 4, y);
+        int slot = 0;
+        while (gamePanel.item[slot] == null) {
+            slot++;
+        }
+        Rectangle itemTile = new Rectangle(gamePanel.item[slot].getXPosition(), gamePanel.item[slot].getYPosition(), size, size);
+        gamePanel.item[slot] = null;
+
+        WorldSnapshot moved = WorldSnapshot.capture(gamePanel);
+        List<Rectangle> damage = tracker.track(moved, gamePanel.tileM);
+        assertTrue(covers(damage, new Rectangle(x, y, size + 4, size)));
+        assertTrue(covers(damage, itemTile));
+        assertTrue(tracker.getLastCoverage() < 0.02, "coverage " + tracker.getLastCoverage());
+
+        // still sliding between the two ticks, so the hero's path is redrawn on every frame
+        damage = tracker.track(moved, gamePanel.tileM);
+        assertEquals(List.of(new Rectangle(x, y, size + 4, size)), damage);
+    }
+
+    /**
+     * Tests that the score and timer area is damaged when the timer advances.
+     */
+    @Test
+    void testTimerDamagesHud() {
+        tracker.track(WorldSnapshot.capture(gamePanel), gamePanel.tileM);
+        gamePanel.ui.update(1.0 / 60);
+        List<Rectangle> damage = tracker.track(WorldSnapshot.capture(gamePanel), gamePanel.tileM);
+        assertEquals(List.of(gamePanel.ui.getHudBounds()), damage);
+    }
+}
@@ -0,0 +1,77 @@
+import com.game.Characters.Enemy;
+import com.game.Characters.EnemyMovement.DistanceField;
+import com.game.Characters.EnemyMovement.PathFinder;
+import com.game.GamePanel.MainGamePanel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link DistanceField} that enemies share to chase the hero.
+ */
+public class TestDistanceField {
+
+    private MainGamePanel gamePanel;
+    private DistanceField distanceField;
+
+    @BeforeEach
+    public void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        distanceField = gamePanel.distanceField;
+    }
+
+    /**
+     * Tests that the distance stored for a cell equals the length of the shortest path
+     * found by the {@link PathFinder}.
+     */
+    @Test
+    public void testDistanceMatchesShortestPath() {
+        Enemy enemy = gamePanel.getEnemy();
+        PathFinder pathFinder = gamePanel.pathFinder;
+        distanceField.update(1, 1);
+
+        int[][] starts = {{25, 16}, {14, 7}, {5, 11}, {26, 1}};
+        for (int[] start : starts) {
+            pathFinder.setNode(start[0], start[1], 1, 1, enemy);
+            assertTrue(pathFinder.search());
+            assertEquals(pathFinder.pathList.size(), distanceField.getDistance(start[0], start[1]));
+        }
+    }
+
+    /**
+     * Tests that following the next steps from a cell reaches the hero's tile.
+     */
+    @Test
+    public void testNextStepsLeadToHero() {
+        distanceField.update(1, 1);
+        int col = 25;
+        int row = 16;
+        int steps = 0;
+        while (col != 1 || row != 1) {
+            int next = distanceField.nextStep(col, row);
+            assertNotEquals(-1, next);
+            col = next % distanceField.getCols();
+            row = next / distanceField.getCols();
+            steps++;
+        }
+        assertEquals(distanceField.getDistance(25, 16), steps);
+        assertEquals(-1, distanceField.nextStep(1, 1));
+    }
+
+    /**
+     * Tests that the field is only rebuilt when the hero reaches another tile.
+     */
+    @Test
+    public void testRebuiltOnlyWhenHeroChangesTile() {
+        distanceField.update(1, 1);
+        int rebuilds = distanceField.getRebuildCount();
+
+        distanceField.update(1, 1);
+        assertEquals(rebuilds, distanceField.getRebuildCount());
+
+        distanceField.update(2, 1);
+        assertEquals(rebuilds + 1, distanceField.getRebuildCount());
+    }
+}
@@ -0,0 +1,90 @@
+import com.game.Characters.EnemyMovement.DistanceField;
+import com.game.Characters.EnemyMovement.DistanceTable;
+import com.game.GamePanel.MainGamePanel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link DistanceTable} of next steps between all pairs of cells.
+ */
+public class TestDistanceTable {
+
+    private MainGamePanel gamePanel;
+    private DistanceTable distanceTable;
+
+    @BeforeEach
+    public void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        distanceTable = gamePanel.distanceTable;
+    }
+
+    /**
+     * Checks that the table's distances from random cells to a target match the
+     * {@link DistanceField} rooted at that target.
+     */
+    private void assertMatchesDistanceField(long seed) {
+        Random random = new Random(seed);
+        DistanceField distanceField = gamePanel.distanceField;
+        int cols = gamePanel.tileM.getMapCols();
+        int rows = gamePanel.tileM.getMapRows();
+        for (int i = 0; i < 30; i++) {
+            int goalCol = random.nextInt(cols);
+            int goalRow = random.nextInt(rows);
+            int startCol = random.nextInt(cols);
+            int startRow = random.nextInt(rows);
+            if (!gamePanel.tileM.isPassable(goalCol, goalRow) || !gamePanel.tileM.isPassable(startCol, startRow)) {
+                continue;
+            }
+            distanceField.update(goalCol, goalRow);
+            int expected = distanceField.getDistance(startCol, startRow);
+            int distance = distanceTable.getDistance(startCol, startRow, goalCol, goalRow);
+            assertEquals(expected == DistanceField.UNREACHABLE ? -1 : expected, distance);
+        }
+    }
+
+    /**
+     * Tests the full table of the hard map.
+     */
+    @Test
+    public void testFullTableMatchesDistanceField() {
+        assertMatchesDistanceField(1);
+        assertTrue(distanceTable.isFull());
+        assertEquals(-1, distanceTable.nextStep(1, 1, 1, 1));
+    }
+
+    /**
+     * Tests rows built on demand for a map above the full-table limit.
+     */
+    @Test
+    public void testLazyRowsMatchDistanceField() {
+        distanceTable.setMaxFullCells(100);
+        distanceTable.setLazyRows(4);
+        assertMatchesDistanceField(2);
+        assertFalse(distanceTable.isFull());
+    }
+
+    /**
+     * Tests that loading a map builds the table when it is precomputed, and that a tile
+     * change makes it rebuild.
+     */
+    @Test
+    public void testPrecomputedAtLoadAndRebuiltOnChange() {
+        distanceTable.setPrecomputed(true);
+        gamePanel.setupGame("Medium");
+        long builds = distanceTable.getRowBuilds();
+        assertTrue(builds >= gamePanel.tileM.getMapCols() * gamePanel.tileM.getMapRows());
+
+        distanceTable.nextStep(1, 1, 5, 5);
+        assertEquals(builds, distanceTable.getRowBuilds());
+
+        gamePanel.tileM.setTileNum(2, 1, 2);
+        distanceTable.nextStep(1, 1, 5, 5);
+        assertTrue(distanceTable.getRowBuilds() > builds);
+        assertMatchesDistanceField(3);
+    }
+}
@@ -0,0 +1,113 @@
+import com.game.GamePanel.FrameScheduler;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link FrameScheduler} that paces the game loop, against a fake clock.
+ */
+public class TestFrameScheduler {
+
+    private static final long MILLIS = 1_000_000;
+
+    /**
+     * A clock whose time only moves when the scheduler parks or spins, or when a test
+     * advances it. Parking sleeps for the asked time plus an optional overshoot; every turn
+     * of the spin loop takes {@link #SPIN_STEP} and counts as CPU time.
+     */
+    private static final class FakeClock implements FrameScheduler.Clock {
+        static final long SPIN_STEP = 20_000;
+
+        long now = 1_000 * MILLIS;
+        long overshoot;
+        long parkedNanos;
+        long spunNanos;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void parkNanos(long nanos) {
+            now += nanos + overshoot;
+            parkedNanos += nanos + overshoot;
+        }
+
+        @Override
+        public void onSpinWait() {
+            now += SPIN_STEP;
+            spunNanos += SPIN_STEP;
+        }
+
+        @Override
+        public long threadCpuTime() {
+            return spunNanos;
+        }
+    }
+
+    /**
+     * Tests that ticks keep their rate while the thread spends most of the time parked.
+     */
+    @Test
+    void testKeepsRateWithoutBusyWaiting() {
+        FakeClock clock = new FakeClock();
+        FrameScheduler scheduler = new FrameScheduler(100, clock);
+        scheduler.start();
+        long start = clock.now;
+        int ticks = 0;
+        while (ticks < 30) {
+            ticks += scheduler.awaitNextTick();
+        }
+        long elapsed = clock.now - start;
+
+        assertEquals(30, ticks);
+        assertEquals(30, scheduler.getWindowTicks());
+        assertEquals(0, scheduler.getMissedTicks());
+        assertTrue(elapsed >= 300 * MILLIS && elapsed < 300 * MILLIS + FakeClock.SPIN_STEP, "elapsed " + elapsed);
+        assertTrue(scheduler.getMaxJitterNanos() < FakeClock.SPIN_STEP);
+        assertTrue(clock.spunNanos <= 30 * (FrameScheduler.SPIN_NANOS + FakeClock.SPIN_STEP));
+        assertTrue(scheduler.getCpuLoad() < 0.15, "cpu load " + scheduler.getCpuLoad());
+    }
+
+    /**
+     * Tests that ticks missed while the loop was busy are returned to be caught up and
+     * counted as missed.
+     */
+    @Test
+    void testCountsMissedTicks() {
+        FakeClock clock = new FakeClock();
+        FrameScheduler scheduler = new FrameScheduler(100, clock);
+        scheduler.start();
+        assertEquals(1, scheduler.awaitNextTick());
+
+        clock.now += 55 * MILLIS; // the tick took 55 ms; the ticks due at 20, 30, 40, 50 and 60 ms are due now
+        assertEquals(5, scheduler.awaitNextTick());
+        assertEquals(4, scheduler.getMissedTicks());
+        assertEquals(45 * MILLIS, scheduler.getMaxJitterNanos());
+
+        scheduler.resetStatistics();
+        assertEquals(0, scheduler.getMissedTicks());
+        assertEquals(4, scheduler.getTotalMissedTicks());
+        assertEquals(1, scheduler.awaitNextTick());
+    }
+
+    /**
+     * Tests that a park that wakes up late shows up as jitter, without ticks being missed.
+     */
+    @Test
+    void testMeasuresJitter() {
+        FakeClock clock = new FakeClock();
+        clock.overshoot = 3 * MILLIS;
+        FrameScheduler scheduler = new FrameScheduler(100, clock);
+        scheduler.start();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, scheduler.awaitNextTick());
+        }
+        // every park stops SPIN_NANOS early and wakes up 3 ms late
+        long late = 3 * MILLIS - FrameScheduler.SPIN_NANOS;
+        assertEquals(late, scheduler.getMeanJitterNanos());
+        assertEquals(late, scheduler.getMaxJitterNanos());
+        assertEquals(0, scheduler.getMissedTicks());
+    }
+}
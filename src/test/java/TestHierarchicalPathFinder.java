@@ -0,0 +1,121 @@
+import com.game.Characters.Enemy;
+import com.game.Characters.EnemyMovement.HierarchicalPathFinder;
+import com.game.Characters.EnemyMovement.PathFinder;
+import com.game.GamePanel.MainGamePanel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link HierarchicalPathFinder} on the game maps and on large generated mazes.
+ */
+public class TestHierarchicalPathFinder {
+
+    private MainGamePanel gamePanel;
+    private HierarchicalPathFinder hierarchical;
+    private Enemy enemy;
+
+    @BeforeEach
+    public void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        hierarchical = gamePanel.hierarchicalPathFinder;
+        enemy = gamePanel.getEnemy();
+    }
+
+    /**
+     * Follows the next steps from the start until the goal is reached and returns the
+     * number of steps taken, or -1 if no step is returned on the way.
+     */
+    private int walk(int startCol, int startRow, int goalCol, int goalRow) {
+        int cols = gamePanel.tileM.getMapCols();
+        int col = startCol;
+        int row = startRow;
+        int steps = 0;
+        while (col != goalCol || row != goalRow) {
+            int next = hierarchical.nextStep(col, row, goalCol, goalRow);
+            if (next < 0) {
+                return -1;
+            }
+            assertEquals(1, Math.abs(next % cols - col) + Math.abs(next / cols - row));
+            col = next % cols;
+            row = next / cols;
+            assertTrue(gamePanel.tileM.isPassable(col, row) || (col == goalCol && row == goalRow));
+            steps++;
+            assertTrue(steps <= cols * gamePanel.tileM.getMapRows());
+        }
+        return steps;
+    }
+
+    /**
+     * Checks random pairs of walkable cells: the walk reaches the goal exactly when A* finds
+     * a path, and it is not much longer than the A* path.
+     */
+    private void assertReachesGoals(long seed, int queries) {
+        PathFinder pathFinder = gamePanel.pathFinder;
+        Random random = new Random(seed);
+        int cols = gamePanel.tileM.getMapCols();
+        int rows = gamePanel.tileM.getMapRows();
+        for (int i = 0; i < queries; i++) {
+            int[] start = randomPassableCell(random, cols, rows);
+            int[] goal = randomPassableCell(random, cols, rows);
+            pathFinder.setNode(start[0], start[1], goal[0], goal[1], enemy);
+            boolean found = pathFinder.search();
+            int steps = walk(start[0], start[1], goal[0], goal[1]);
+            if (!found) {
+                assertTrue(steps <= 0);
+                continue;
+            }
+            assertTrue(steps >= pathFinder.getPathLength());
+            assertTrue(steps <= pathFinder.getPathLength() * 3 / 2 + 8);
+        }
+    }
+
+    private int[] randomPassableCell(Random random, int cols, int rows) {
+        while (true) {
+            int col = random.nextInt(cols);
+            int row = random.nextInt(rows);
+            if (gamePanel.tileM.isPassable(col, row)) {
+                return new int[]{col, row};
+            }
+        }
+    }
+
+    /**
+     * Tests walks on the hard map, which has two by two clusters.
+     */
+    @Test
+    public void testReachesGoalsOnMap() {
+        assertReachesGoals(1, 100);
+    }
+
+    /**
+     * Tests walks on a generated maze of many clusters.
+     */
+    @Test
+    public void testReachesGoalsOnGeneratedMaze() {
+        gamePanel.tileM.loadMap(MazeGenerator.generate(151, 121, 0.2, new Random(3)));
+        assertReachesGoals(3, 20);
+    }
+
+    /**
+     * Tests that changing one tile only rebuilds the clusters around it, and that a
+     * corridor that is walled up is no longer used.
+     */
+    @Test
+    public void testTileChangeRebuildsNearbyClusters() {
+        gamePanel.tileM.loadMap(MazeGenerator.generate(161, 161, 0.0, new Random(5)));
+        int cols = gamePanel.tileM.getMapCols();
+        assertTrue(walk(1, 1, 159, 159) > 0);
+        long rebuilds = hierarchical.getClusterRebuilds();
+
+        int next = hierarchical.nextStep(1, 1, 159, 159);
+        gamePanel.tileM.setTileNum(next % cols, next / cols, MazeGenerator.WALL);
+        int detour = hierarchical.nextStep(1, 1, 159, 159);
+        assertNotEquals(next, detour);
+        assertTrue(hierarchical.getClusterRebuilds() - rebuilds <= 5);
+    }
+}
@@ -0,0 +1,88 @@
+import com.game.Characters.Hero;
+import com.game.GamePanel.MainGamePanel;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that characters are drawn between their last two simulation states.
+ */
+public class TestInterpolation {
+
+    /**
+     * Creates a game panel whose renderer is always halfway between two ticks.
+     */
+    private MainGamePanel halfwayPanel() {
+        MainGamePanel gamePanel = new MainGamePanel() {
+            @Override
+            public double getInterpolationAlpha() {
+                return 0.5;
+            }
+        };
+        gamePanel.setupGame("Easy");
+        return gamePanel;
+    }
+
+    /**
+     * Draws the hero on an empty image and returns the leftmost column it covers.
+     */
+    private int leftmostDrawnColumn(Hero hero) {
+        BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        hero.draw(g2);
+        g2.dispose();
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                if ((image.getRGB(x, y) >>> 24) != 0) {
+                    return x;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tests that the game panel reports the current state while the game loop is not running.
+     */
+    @Test
+    void testAlphaIsCurrentStateWhenNotRunning() {
+        MainGamePanel gamePanel = new MainGamePanel();
+        assertEquals(1.0, gamePanel.getInterpolationAlpha());
+        assertEquals(MainGamePanel.FPS, gamePanel.getTickRate());
+        gamePanel.setTickRate(120);
+        assertEquals(120, gamePanel.getTickRate());
+    }
+
+    /**
+     * Tests that a step is drawn halfway between the previous and the current position.
+     */
+    @Test
+    void testDrawsBetweenTicks() {
+        Hero hero = halfwayPanel().getHero();
+        hero.setPosition(100, 100);
+        hero.savePreviousPosition();
+        int still = leftmostDrawnColumn(hero);
+
+        hero.setPosition(108, 100);
+        assertEquals(still + 4, leftmostDrawnColumn(hero));
+    }
+
+    /**
+     * Tests that a jump of more than a tile is drawn at the new position instead of sliding
+     * across the map.
+     */
+    @Test
+    void testJumpIsNotInterpolated() {
+        MainGamePanel gamePanel = halfwayPanel();
+        Hero hero = gamePanel.getHero();
+        hero.setPosition(100, 100);
+        hero.savePreviousPosition();
+        int still = leftmostDrawnColumn(hero);
+
+        hero.setPosition(100 + 3 * gamePanel.tileSize, 100);
+        assertEquals(still + 3 * gamePanel.tileSize, leftmostDrawnColumn(hero));
+    }
+}
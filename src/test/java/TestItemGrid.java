@@ -0,0 +1,146 @@
+import com.game.Characters.Hero;
+import com.game.GamePanel.MainGamePanel;
+import com.game.Items.APlusPaper;
+import com.game.Items.Coffee;
+import com.game.Items.Item;
+import com.game.Items.ItemGrid;
+import com.game.Key.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link ItemGrid} that the item collision checks look items up in.
+ */
+public class TestItemGrid {
+
+    private static final Direction[] DIRECTIONS = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+
+    private MainGamePanel gamePanel;
+    private Hero hero;
+
+    @BeforeEach
+    void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Medium");
+        hero = gamePanel.getHero();
+    }
+
+    private int itemCount() {
+        int count = 0;
+        for (Item item : gamePanel.item) {
+            if (item != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks the hero against every item, as the collision check did before the grid.
+     */
+    private int checkEveryItem(int x, int y, Direction direction) {
+        int speed = hero.getMovementSpeed();
+        int left = x + (direction == Direction.LEFT ? -speed : direction == Direction.RIGHT ? speed : 0);
+        int top = y + (direction == Direction.UP ? -speed : direction == Direction.DOWN ? speed : 0);
+        int index = 999;
+        for (int i = 0; i < gamePanel.item.length; i++) {
+            Item item = gamePanel.item[i];
+            if (item != null && left < item.getXPosition() + 48 && item.getXPosition() < left + hero.solidArea.width
+                    && top < item.getYPosition() + 48 && item.getYPosition() < top + hero.solidArea.height) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Tests that the grid finds the same item as checking every item, at random positions
+     * all over the map.
+     */
+    @Test
+    void testGridMatchesCheckingEveryItem() {
+        assertEquals(itemCount(), gamePanel.itemGrid.size());
+        Random random = new Random(276);
+        int hits = 0;
+        for (int i = 0; i < 5000; i++) {
+            int x = random.nextInt(gamePanel.screenWidth);
+            int y = random.nextInt(gamePanel.screenHeight);
+            Direction direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+            hero.setPosition(x, y);
+            hero.setCurrentDirection(direction);
+            int expected = checkEveryItem(x, y, direction);
+            assertEquals(expected, gamePanel.collisionChecker.checkItem(hero, true), "at " + x + "," + y + " " + direction);
+            if (expected != 999) {
+                hits++;
+            }
+        }
+        assertTrue(hits > 0);
+    }
+
+    /**
+     * Tests that moving an item moves it in the grid, and that a picked up item is taken out.
+     */
+    @Test
+    void testGridFollowsMovedAndPickedUpItems() {
+        int slot = 0;
+        while (!(gamePanel.item[slot] instanceof APlusPaper)) {
+            slot++;
+        }
+        Item paper = gamePanel.item[slot];
+        int oldX = paper.getXPosition();
+        int oldY = paper.getYPosition();
+        ((APlusPaper) paper).reSpawnPosition();
+        ensureMoved(paper, oldX, oldY);
+
+        hero.setCurrentDirection(Direction.RIGHT);
+        hero.setPosition(oldX - hero.getMovementSpeed(), oldY);
+        assertEquals(checkEveryItem(oldX - hero.getMovementSpeed(), oldY, Direction.RIGHT),
+                gamePanel.collisionChecker.checkItem(hero, true));
+        hero.setPosition(paper.getXPosition() - hero.getMovementSpeed(), paper.getYPosition());
+        assertEquals(slot, gamePanel.collisionChecker.checkItem(hero, true));
+
+        int size = gamePanel.itemGrid.size();
+        hero.pickUpItem(slot);
+        assertEquals(size - 1, gamePanel.itemGrid.size());
+        assertEquals(-1, paper.getSlot());
+        assertEquals(999, gamePanel.collisionChecker.checkItem(hero, true));
+    }
+
+    private static void ensureMoved(Item item, int oldX, int oldY) {
+        if (item.getXPosition() == oldX && item.getYPosition() == oldY) {
+            item.setPosition(oldX / 48 == 1 ? 2 : 1, 1);
+        }
+    }
+
+    /**
+     * Tests that items made to test a spawn position are not added, and that thousands of
+     * items on a large map are found.
+     */
+    @Test
+    void testManyItems() {
+        int size = gamePanel.itemGrid.size();
+        new APlusPaper(gamePanel).setPosition(3, 3);
+        assertEquals(size, gamePanel.itemGrid.size());
+
+        gamePanel.tileM.loadMap(new int[200][200]);
+        gamePanel.item = new Item[10_000];
+        Random random = new Random(276);
+        for (int i = 0; i < gamePanel.item.length; i++) {
+            gamePanel.item[i] = new Coffee(gamePanel);
+            gamePanel.item[i].setPosition(random.nextInt(200), random.nextInt(200));
+        }
+        gamePanel.itemGrid.rebuild(gamePanel.item, 200, 200);
+        assertEquals(10_000, gamePanel.itemGrid.size());
+        for (int i = 0; i < 1000; i++) {
+            int x = random.nextInt(200 * 48);
+            int y = random.nextInt(200 * 48);
+            hero.setPosition(x, y);
+            hero.setCurrentDirection(Direction.DOWN);
+            assertEquals(checkEveryItem(x, y, Direction.DOWN), gamePanel.collisionChecker.checkItem(hero, true));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import com.game.Characters.Enemy;
+import com.game.Characters.EnemyMovement.JumpPointFinder;
+import com.game.Characters.EnemyMovement.Node;
+import com.game.Characters.EnemyMovement.PathFinder;
+import com.game.GamePanel.MainGamePanel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the {@link JumpPointFinder} finds paths as short as the A* {@link PathFinder}.
+ */
+public class TestJumpPointFinder {
+
+    private MainGamePanel gamePanel;
+    private Enemy enemy;
+
+    @BeforeEach
+    public void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        enemy = gamePanel.getEnemy();
+    }
+
+    /**
+     * Searches random pairs of walkable cells with both path finders and checks that they
+     * agree on reachability and path length, and that the jump point path is walkable
+     * step by step.
+     */
+    private void assertSameAsAStar(long seed, int queries) {
+        PathFinder aStar = gamePanel.pathFinder;
+        JumpPointFinder jumpPoint = gamePanel.jumpPointFinder;
+        Random random = new Random(seed);
+        int cols = gamePanel.tileM.getMapCols();
+        int rows = gamePanel.tileM.getMapRows();
+        for (int i = 0; i < queries; i++) {
+            int[] start = randomPassableCell(random, cols, rows);
+            int[] goal = randomPassableCell(random, cols, rows);
+
+            aStar.setNode(start[0], start[1], goal[0], goal[1], enemy);
+            boolean aStarFound = aStar.search();
+            jumpPoint.setNode(start[0], start[1], goal[0], goal[1], enemy);
+            assertEquals(aStarFound, jumpPoint.search());
+            if (!aStarFound) {
+                continue;
+            }
+            assertEquals(aStar.pathList.size(), jumpPoint.pathList.size());
+
+            int col = start[0];
+            int row = start[1];
+            for (Node node : jumpPoint.pathList) {
+                assertEquals(1, Math.abs(node.col - col) + Math.abs(node.row - row));
+                assertTrue(gamePanel.tileM.isPassable(node.col, node.row));
+                col = node.col;
+                row = node.row;
+            }
+            assertEquals(goal[0], col);
+            assertEquals(goal[1], row);
+        }
+    }
+
+    private int[] randomPassableCell(Random random, int cols, int rows) {
+        while (true) {
+            int col = random.nextInt(cols);
+            int row = random.nextInt(rows);
+            if (gamePanel.tileM.isPassable(col, row)) {
+                return new int[]{col, row};
+            }
+        }
+    }
+
+    /**
+     * Tests jump point paths on the hard map.
+     */
+    @Test
+    public void testMatchesAStarOnMap() {
+        assertSameAsAStar(1, 300);
+    }
+
+    /**
+     * Tests jump point paths on generated mazes, from narrow corridors to open rooms.
+     */
+    @Test
+    public void testMatchesAStarOnGeneratedMazes() {
+        double[] openness = {0.0, 0.1, 0.4};
+        for (int i = 0; i < openness.length; i++) {
+            gamePanel.tileM.loadMap(MazeGenerator.generate(61, 41, openness[i], new Random(i)));
+            assertSameAsAStar(i, 200);
+        }
+    }
+
+    /**
+     * Tests that the start cell is not a path and that the goal is accepted even when its
+     * tile cannot be stepped on.
+     */
+    @Test
+    public void testStartAndSolidGoal() {
+        JumpPointFinder jumpPoint = gamePanel.jumpPointFinder;
+        jumpPoint.setNode(2, 16, 2, 16, enemy);
+        assertFalse(jumpPoint.search());
+
+        // (3,1) is a locker next to the walkable (2,1)
+        jumpPoint.setNode(2, 16, 3, 1, enemy);
+        assertTrue(jumpPoint.search());
+        Node last = jumpPoint.pathList.get(jumpPoint.pathList.size() - 1);
+        assertEquals(3, last.col);
+        assertEquals(1, last.row);
+    }
+}
@@ -0,0 +1,131 @@
+import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.WorldSnapshot;
+import com.game.Tile.MapConverter;
+import com.game.Tile.MapLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests reading text maps and the binary maps {@link MapConverter} compiles them into.
+ */
+public class TestMapLoader {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("maps");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    /**
+     * Tests that every map of the game reads the same from its binary version as from its
+     * text.
+     */
+    @Test
+    void testBinaryMapsMatchTextMaps() throws IOException {
+        for (String name : new String[]{"map01", "map02", "map03"}) {
+            Path text = dir.resolve(name + ".txt");
+            try (var in = MapLoader.class.getResourceAsStream("/Maps/" + name + ".txt")) {
+                Files.copy(in, text);
+            }
+            Path binary = dir.resolve(MapLoader.binaryName(text.getFileName().toString()));
+            int[][] converted = MapConverter.convert(text, binary);
+
+            int[][] loaded = MapLoader.readBinary(binary);
+            assertEquals(28, loaded.length);
+            assertEquals(18, loaded[0].length);
+            assertArrayEquals(converted, loaded);
+            assertArrayEquals(converted, MapLoader.shared().load("/Maps/" + name + ".txt"));
+            assertEquals(MapLoader.HEADER_BYTES + 28 * 18, Files.size(binary));
+        }
+    }
+
+    /**
+     * Tests that the text parser reads rows of any width and rejects ragged maps.
+     */
+    @Test
+    void testTextMaps() throws IOException {
+        int[][] map = MapLoader.readText(new BufferedReader(new StringReader("1 2 3\n 4  5 6 \n\n")));
+        assertArrayEquals(new int[][]{{1, 4}, {2, 5}, {3, 6}}, map);
+
+        assertThrows(IOException.class, () -> MapLoader.readText(new BufferedReader(new StringReader("1 2 3\n4 5\n"))));
+        assertThrows(IOException.class, () -> MapLoader.readText(new BufferedReader(new StringReader(""))));
+    }
+
+    /**
+     * Tests that files which are not binary maps, or are cut short, are rejected.
+     */
+    @Test
+    void testBadBinaryMaps() throws IOException {
+        Path text = dir.resolve("bad.rcbmap");
+        Files.writeString(text, "1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6");
+        assertThrows(IOException.class, () -> MapLoader.readBinary(text));
+
+        Path truncated = dir.resolve("truncated.rcbmap");
+        MapConverter.write(new int[][]{{1, 2}, {3, 4}}, truncated);
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MapLoader.readBinary(truncated));
+
+        assertThrows(IllegalArgumentException.class, () -> MapConverter.write(new int[][]{{256}}, dir.resolve("big.rcbmap")));
+    }
+
+    /**
+     * Tests that a missing map is reported as an {@link IOException}.
+     */
+    @Test
+    void testMissingMap() {
+        assertThrows(IOException.class, () -> MapLoader.shared().load("/Maps/none.txt"));
+    }
+
+    /**
+     * Tests that a map larger than the screen is loaded whole instead of being cut to the
+     * screen's size.
+     */
+    @Test
+    void testMapLargerThanScreen() throws IOException {
+        int[][] map = MapLoader.shared().load("/Maps/wide.txt");
+        assertEquals(40, map.length);
+        assertEquals(24, map[0].length);
+        assertEquals(3, map[39][23]);
+
+        // the camera scrolls over the whole map, up to its bottom right corner
+        MainGamePanel gamePanel = new MainGamePanel();
+        gamePanel.tileM.loadMap(map);
+        gamePanel.getHero().setPosition(38 * gamePanel.tileSize, 22 * gamePanel.tileSize);
+        gamePanel.getHero().savePreviousPosition();
+        Point origin = gamePanel.getCamera().origin(WorldSnapshot.capture(gamePanel), 1);
+        assertEquals(new Point(40 * gamePanel.tileSize - gamePanel.screenWidth,
+                24 * gamePanel.tileSize - gamePanel.screenHeight), origin);
+    }
+
+    /**
+     * Tests that the converter reports missing arguments with an exception rather than by
+     * exiting the JVM it runs in.
+     */
+    @Test
+    void testConverterWithoutArguments() {
+        assertThrows(IllegalArgumentException.class, () -> MapConverter.main(new String[0]));
+    }
+}
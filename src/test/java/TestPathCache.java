@@ -0,0 +1,70 @@
+import com.game.Characters.Enemy;
+import com.game.Characters.EnemyMovement.PathCache;
+import com.game.Characters.EnemyMovement.PathMode;
+import com.game.GamePanel.MainGamePanel;
+import com.game.Key.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that {@link com.game.Characters.Character#searchPath(int, int)} reuses its cached
+ * path and only plans again when an endpoint or the map changes.
+ */
+public class TestPathCache {
+
+    private MainGamePanel gamePanel;
+    private Enemy enemy;
+
+    @BeforeEach
+    public void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Easy");
+        enemy = gamePanel.getEnemy();
+        enemy.setPathMode(PathMode.A_STAR);
+        enemy.setPosition(2 * gamePanel.tileSize, 5 * gamePanel.tileSize);
+        PathCache.resetStatistics();
+    }
+
+    /**
+     * Tests that asking again for the same start and goal is answered from the cache.
+     */
+    @Test
+    public void testSameEndpointsHitTheCache() {
+        enemy.searchPath(6, 5);
+        enemy.searchPath(6, 5);
+
+        assertEquals(1, PathCache.getMisses());
+        assertEquals(1, PathCache.getHits());
+        assertEquals(Direction.RIGHT, enemy.getCurrentDirection());
+    }
+
+    /**
+     * Tests that the remaining part of the path is reused after the enemy moved one tile.
+     */
+    @Test
+    public void testPathSuffixReusedAfterMoving() {
+        enemy.searchPath(6, 5);
+        enemy.setPosition(3 * gamePanel.tileSize, 5 * gamePanel.tileSize);
+        enemy.searchPath(6, 5);
+
+        assertEquals(1, PathCache.getMisses());
+        assertEquals(1, PathCache.getHits());
+    }
+
+    /**
+     * Tests that a new goal or a change in the map's passability plans the path again.
+     */
+    @Test
+    public void testGoalOrMapChangeMissesTheCache() {
+        enemy.searchPath(6, 5);
+        enemy.searchPath(7, 5);
+        assertEquals(2, PathCache.getMisses());
+
+        gamePanel.tileM.setTileNum(20, 10, 2);
+        enemy.searchPath(7, 5);
+        assertEquals(3, PathCache.getMisses());
+        assertEquals(0, PathCache.getHits());
+    }
+}
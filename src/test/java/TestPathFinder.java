@@ -4,6 +4,7 @@ import com.game.GamePanel.MainGamePanel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -98,5 +99,24 @@ public class TestPathFinder {
         boolean pathFound = !pathFinder.search();
         assertTrue(pathFound);
     }
-}
 
+    /**
+     * Tests that a search does not pick up open or checked nodes left over from the previous
+     * search of the same pathfinder. The second search must find a path as long as the one
+     * found by a fresh pathfinder.
+     */
+    @Test
+    public void testConsecutiveSearchesIgnoreStaleNodes() {
+        pathFinder.setNode(1, 1, 25, 16, enemy);
+        assertTrue(pathFinder.search());
+
+        pathFinder.setNode(25, 16, 2, 3, enemy);
+        assertTrue(pathFinder.search());
+        int reusedLength = pathFinder.pathList.size();
+
+        PathFinder freshPathFinder = new PathFinder(gamePanel);
+        freshPathFinder.setNode(25, 16, 2, 3, enemy);
+        assertTrue(freshPathFinder.search());
+        assertEquals(freshPathFinder.pathList.size(), reusedLength);
+    }
+}
@@ -0,0 +1,108 @@
+import com.game.Characters.Enemy;
+import com.game.Characters.EnemyMovement.PathFinder;
+import com.game.Characters.EnemyMovement.PathMode;
+import com.game.Characters.EnemyMovement.PathfindingService;
+import com.game.GamePanel.MainGamePanel;
+import com.game.Key.Direction;
+import com.game.Tile.PassabilitySnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link PathfindingService} that runs path searches off the game loop.
+ */
+public class TestPathfindingService {
+
+    private MainGamePanel gamePanel;
+    private Enemy enemy;
+
+    @BeforeEach
+    void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Easy");
+        enemy = gamePanel.getEnemy();
+    }
+
+    /**
+     * Tests that searches running on several workers at once find paths as long as the
+     * ones searched on the calling thread.
+     */
+    @Test
+    void testResultsMatchSynchronousSearch() throws Exception {
+        PathfindingService service = gamePanel.pathfindingService;
+        int[][] queries = {{2, 16, 5, 5}, {10, 14, 5, 5}, {1, 1, 26, 16}, {25, 2, 3, 15}};
+        List<Future<PathfindingService.Result>> aStar = new ArrayList<>();
+        List<Future<PathfindingService.Result>> jumpPoint = new ArrayList<>();
+        PassabilitySnapshot map = gamePanel.tileM.snapshotPassability();
+        for (int[] q : queries) {
+            aStar.add(service.submit(map, PathMode.A_STAR, q[0], q[1], q[2], q[3]));
+            jumpPoint.add(service.submit(map, PathMode.JUMP_POINT, q[0], q[1], q[2], q[3]));
+        }
+
+        PathFinder pathFinder = gamePanel.pathFinder;
+        for (int i = 0; i < queries.length; i++) {
+            int[] q = queries[i];
+            pathFinder.setNode(q[0], q[1], q[2], q[3], enemy);
+            int expected = pathFinder.search() ? pathFinder.getPathLength() : 0;
+            assertEquals(expected, aStar.get(i).get().getPathLength());
+            assertEquals(expected, jumpPoint.get(i).get().getPathLength());
+            assertEquals(gamePanel.tileM.getMapVersion(), aStar.get(i).get().getMapVersion());
+        }
+    }
+
+    /**
+     * Tests that the enemy keeps its last direction until the search result arrives and
+     * then steers along the path.
+     */
+    @Test
+    void testKeepsDirectionUntilResultArrives() throws Exception {
+        enemy.setPosition(2 * gamePanel.tileSize, 16 * gamePanel.tileSize);
+        enemy.setCurrentDirection(Direction.LEFT);
+
+        enemy.searchPathAsync(5, 5, PathMode.A_STAR, gamePanel.pathfindingService);
+        assertEquals(Direction.LEFT, enemy.getCurrentDirection());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (enemy.getCurrentDirection() == Direction.LEFT && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+            enemy.searchPathAsync(5, 5, PathMode.A_STAR, gamePanel.pathfindingService);
+        }
+        assertTrue(enemy.getCurrentDirection() == Direction.UP || enemy.getCurrentDirection() == Direction.RIGHT);
+    }
+
+    /**
+     * Tests that a snapshot keeps the passability it was taken with while the game thread
+     * changes the map, and that a search reports the version of the snapshot it ran on.
+     */
+    @Test
+    void testSearchRunsOnSnapshot() throws Exception {
+        PassabilitySnapshot map = gamePanel.tileM.snapshotPassability();
+        assertSame(map, gamePanel.tileM.snapshotPassability());
+        assertTrue(map.isPassable(5, 5));
+
+        gamePanel.tileM.setTileNum(5, 5, 3);
+        assertTrue(map.isPassable(5, 5));
+        PassabilitySnapshot changed = gamePanel.tileM.snapshotPassability();
+        assertFalse(changed.isPassable(5, 5));
+        assertNotEquals(map.getVersion(), changed.getVersion());
+
+        PathfindingService.Result result = gamePanel.pathfindingService.submit(map, PathMode.A_STAR, 2, 16, 5, 5).get();
+        assertTrue(result.getPathLength() > 0);
+        assertEquals(map.getVersion(), result.getMapVersion());
+    }
+
+    /**
+     * Tests that game panels share one service instead of each starting its own threads.
+     */
+    @Test
+    void testPanelsShareOneService() {
+        assertSame(PathfindingService.shared(), gamePanel.pathfindingService);
+        assertSame(gamePanel.pathfindingService, new MainGamePanel().pathfindingService);
+    }
+}
@@ -0,0 +1,50 @@
+import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.RenderMode;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests choosing the render mode and drawing frames outside of Swing's painting.
+ */
+public class TestRenderMode {
+
+    /**
+     * Tests that mode names are parsed ignoring case and that unknown names fall back to
+     * Swing's painting.
+     */
+    @Test
+    void testParse() {
+        assertEquals(RenderMode.ACTIVE, RenderMode.parse("active"));
+        assertEquals(RenderMode.ACTIVE, RenderMode.parse(" ACTIVE "));
+        assertEquals(RenderMode.PASSIVE, RenderMode.parse("passive"));
+        assertEquals(RenderMode.PASSIVE, RenderMode.parse("vsync"));
+        assertEquals(RenderMode.PASSIVE, RenderMode.parse(null));
+    }
+
+    /**
+     * Tests that a frame can be drawn into any graphics context, as the active renderer
+     * does with its back buffer.
+     */
+    @Test
+    void testRenderFrameIntoImage() {
+        MainGamePanel gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Easy");
+        gamePanel.setRenderMode(RenderMode.ACTIVE);
+        assertEquals(RenderMode.ACTIVE, gamePanel.getRenderMode());
+        assertNull(gamePanel.getActiveRenderer());
+
+        BufferedImage image = new BufferedImage(gamePanel.getPreferredSize().width,
+                gamePanel.getPreferredSize().height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = image.createGraphics();
+        gamePanel.renderFrame(g2);
+        g2.dispose();
+
+        int hx = gamePanel.getHero().getXPosition() + gamePanel.tileSize / 2;
+        int hy = gamePanel.getHero().getYPosition() + gamePanel.tileSize / 2;
+        assertNotEquals(0, image.getRGB(hx, hy) >>> 24);
+    }
+}
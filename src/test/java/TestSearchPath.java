@@ -31,7 +31,7 @@ public class TestSearchPath {
      */
     @Test
     void testAdjustedEnemyDirectionWhenHeroStandOnRightUpPositionFromEnemy() {
-        enemy.setPosition(2 * gamePanel.tileSize, 14 * gamePanel.tileSize);
+        enemy.setPosition(2 * gamePanel.tileSize, 16 * gamePanel.tileSize);
         int goalCol = 5;
         int goalRow = 5;
 
@@ -0,0 +1,91 @@
+import com.game.Utilities.SpriteCache;
+import com.game.Utilities.UtilityTool;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link SpriteCache} behind {@link UtilityTool#setImage}.
+ */
+public class TestSpriteCache {
+
+    /**
+     * Tests that a sprite is decoded once, shared between requests, and looks like the
+     * image scaled on its own.
+     */
+    @Test
+    void testDecodesOnceAndMatchesScaledImage() throws IOException {
+        SpriteCache cache = new SpriteCache(256);
+        BufferedImage first = cache.get("/Items/Vortex.png", 48, 48);
+        BufferedImage second = cache.get("/Items/Vortex.png", 48, 48);
+        BufferedImage small = cache.get("/Items/Vortex.png", 16, 16);
+
+        assertSame(first, second);
+        assertEquals(16, small.getWidth());
+        assertEquals(1, cache.getDecodes());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        BufferedImage expected = new UtilityTool().scaleImage(
+                ImageIO.read(getClass().getResourceAsStream("/Items/Vortex.png")), 48, 48);
+        for (int x = 0; x < 48; x++) {
+            for (int y = 0; y < 48; y++) {
+                assertEquals(expected.getRGB(x, y), first.getRGB(x, y), "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    /**
+     * Tests that sprites are packed into a new atlas once one is full, and that a missing
+     * resource is reported and not cached.
+     */
+    @Test
+    void testAtlasPagesAndMissingResource() throws IOException {
+        SpriteCache cache = new SpriteCache(100);
+        cache.get("/Items/Bed.png", 48, 48);
+        cache.get("/Items/Coffee.png", 48, 48);
+        cache.get("/Items/APlusPaper.png", 48, 48);
+        cache.get("/Items/PileOfBooks.png", 48, 48);
+        assertEquals(1, cache.getAtlasCount());
+        cache.get("/Items/Vortex.png", 48, 48);
+        assertEquals(2, cache.getAtlasCount());
+        cache.get("/Items/Vortex.png", 200, 200);
+        assertEquals(2, cache.getAtlasCount());
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("/Items/Missing.png", 48, 48));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("/Items/Missing.png", 48, 48));
+    }
+
+    /**
+     * Tests that concurrent requests for the same sprite decode it only once and all get
+     * the same image.
+     */
+    @Test
+    void testConcurrentRequests() throws Exception {
+        SpriteCache cache = new SpriteCache(1024);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BufferedImage>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(pool.submit(() -> cache.get("/Hero/Student_left.png", 48, 48)));
+            }
+            BufferedImage image = results.get(0).get();
+            for (Future<BufferedImage> result : results) {
+                assertSame(image, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, cache.getDecodes());
+        assertEquals(1, cache.getMisses());
+    }
+}
@@ -0,0 +1,58 @@
+import com.game.Characters.Hero;
+import com.game.GamePanel.MainGamePanel;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the characters move at the same speed per second whatever the tick rate.
+ */
+public class TestTickRate {
+
+    /**
+     * Runs the game for one second at the given tick rate with the hero walking right along
+     * an empty row, and returns how far the hero got.
+     */
+    private int distanceInOneSecond(int tickRate) throws IOException {
+        MainGamePanel gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Easy");
+        gamePanel.setTickRate(tickRate);
+        for (int i = 0; i < gamePanel.item.length; i++) {
+            gamePanel.item[i] = null;
+        }
+        gamePanel.itemGrid.rebuild(gamePanel.item, gamePanel.tileM.getMapCols(), gamePanel.tileM.getMapRows());
+        for (int col = 1; col < gamePanel.tileM.getMapCols() - 1; col++) {
+            gamePanel.tileM.setTileNum(col, 1, 0);
+        }
+        gamePanel.getEnemy().setPosition(gamePanel.tileSize * 26, gamePanel.tileSize * 16);
+
+        KeyEvent right = new KeyEvent(gamePanel, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, KeyEvent.VK_D, 'D');
+        for (KeyListener listener : gamePanel.getKeyListeners()) {
+            listener.keyPressed(right);
+        }
+        gamePanel.update(); // the first tick places the hero's solid area, so it does not move yet
+
+        Hero hero = gamePanel.getHero();
+        int startX = hero.getXPosition();
+        for (int tick = 0; tick < tickRate; tick++) {
+            gamePanel.update();
+        }
+        return hero.getXPosition() - startX;
+    }
+
+    /**
+     * Tests that the hero covers its speed times {@link MainGamePanel#FPS} pixels in a second
+     * at 60, 90 and 120 ticks per second.
+     */
+    @Test
+    void testSameDistancePerSecondAtAnyTickRate() throws IOException {
+        int expected = 4 * MainGamePanel.FPS;
+        assertEquals(expected, distanceInOneSecond(MainGamePanel.FPS));
+        assertEquals(expected, distanceInOneSecond(120));
+        assertEquals(expected, distanceInOneSecond(90));
+    }
+}
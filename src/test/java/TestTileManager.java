@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 
@@ -93,4 +94,79 @@ public class TestTileManager {
             tileManager.setSpriteChange(0, "invalid_filename");
         });
     }
+
+    /**
+     * Draws the tile manager into a new image the size of the screen.
+     */
+    private BufferedImage drawTiles(TileManager tiles) {
+        BufferedImage image = new BufferedImage(gamePanel.screenWidth, gamePanel.screenHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        tiles.draw(g2);
+        g2.dispose();
+        return image;
+    }
+
+    /**
+     * Test that the tile layer is drawn once and reused for later frames, and that it looks
+     * like the tiles drawn one by one.
+     */
+    @Test
+    public void testTileLayerIsReused() {
+        BufferedImage first = drawTiles(tileManager);
+        BufferedImage second = drawTiles(tileManager);
+        assertEquals(1, tileManager.getTileLayerBuilds());
+        assertArrayEquals(getRGBPixels(first), getRGBPixels(second));
+
+        BufferedImage expected = new BufferedImage(gamePanel.screenWidth, gamePanel.screenHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = expected.createGraphics();
+        for (int col = 0; col < gamePanel.maxScreenCol; col++) {
+            for (int row = 0; row < gamePanel.maxScreeRow; row++) {
+                Tile tile = tileManager.getTile()[tileManager.getMapTileNum()[col][row]];
+                g2.drawImage(tile.getTileSprite(), col * gamePanel.tileSize, row * gamePanel.tileSize,
+                        gamePanel.tileSize, gamePanel.tileSize, null);
+            }
+        }
+        g2.dispose();
+        assertArrayEquals(getRGBPixels(expected), getRGBPixels(first));
+    }
+
+    /**
+     * Test that changing a tile or a tile sprite redraws the tile layer on the next frame.
+     */
+    @Test
+    public void testTileLayerRedrawnAfterChange() {
+        drawTiles(tileManager);
+        tileManager.setTileNum(1, 1, tileManager.getMapTileNum()[1][1]);
+        drawTiles(tileManager);
+        assertEquals(1, tileManager.getTileLayerBuilds());
+
+        tileManager.setTileNum(1, 1, 3);
+        drawTiles(tileManager);
+        assertEquals(2, tileManager.getTileLayerBuilds());
+
+        tileManager.setSpriteChange(5, "smoke");
+        drawTiles(tileManager);
+        assertEquals(3, tileManager.getTileLayerBuilds());
+    }
+
+    /**
+     * Test that the tile flags of every cell match the properties of its tile, also after a
+     * tile changed, and that cells outside the map have no flags.
+     */
+    @Test
+    public void testTileFlagsMatchTiles() {
+        tileManager.setTileNum(2, 3, 4);
+        for (int col = 0; col < tileManager.getMapCols(); col++) {
+            for (int row = 0; row < tileManager.getMapRows(); row++) {
+                Tile tile = tileManager.getTile()[tileManager.getMapTileNum()[col][row]];
+                int flags = tileManager.getTileFlags(col, row);
+                assertEquals(tile.tileSteppable(), (flags & TileManager.STEPPABLE) != 0);
+                assertEquals(tile.isLevelEnd(), (flags & TileManager.LEVEL_END) != 0);
+                assertEquals(tile.isMysteriousSmokeTile(), (flags & TileManager.SMOKE) != 0);
+            }
+        }
+        assertEquals(TileManager.LEVEL_END, tileManager.getTileFlags(2, 3));
+        assertEquals(0, tileManager.getTileFlags(-1, 0));
+        assertEquals(0, tileManager.getTileFlags(0, tileManager.getMapRows()));
+    }
 }
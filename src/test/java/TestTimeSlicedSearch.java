@@ -0,0 +1,105 @@
+import com.game.Characters.Enemy;
+import com.game.Characters.EnemyMovement.PathFinder;
+import com.game.Characters.EnemyMovement.PathMode;
+import com.game.Characters.EnemyMovement.SearchBudget;
+import com.game.GamePanel.MainGamePanel;
+import com.game.Key.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests path searches that are spread over frames within a {@link SearchBudget}.
+ */
+public class TestTimeSlicedSearch {
+
+    private MainGamePanel gamePanel;
+    private Enemy enemy;
+
+    @BeforeEach
+    void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Hard");
+        enemy = gamePanel.getEnemy();
+    }
+
+    /**
+     * Tests that resuming a search a few steps at a time finds the same path as one search.
+     */
+    @Test
+    void testResumedSearchMatchesSearch() {
+        PathFinder pathFinder = gamePanel.pathFinder;
+        pathFinder.setNode(25, 16, 1, 1, enemy);
+        assertTrue(pathFinder.search());
+        int length = pathFinder.getPathLength();
+
+        pathFinder.setNode(25, 16, 1, 1, enemy);
+        int calls = 0;
+        while (!pathFinder.resume(5)) {
+            calls++;
+        }
+        assertTrue(pathFinder.goalReached);
+        assertEquals(length, pathFinder.getPathLength());
+        assertTrue(calls > 1);
+    }
+
+    /**
+     * Tests that a search that needs several frames' budget steers the enemy once it is done,
+     * and keeps its direction before that.
+     */
+    @Test
+    void testSearchFinishesOverSeveralFrames() {
+        SearchBudget budget = new SearchBudget(20, 1_000_000);
+        enemy.setPosition(25 * gamePanel.tileSize, 16 * gamePanel.tileSize);
+        enemy.setCurrentDirection(Direction.DOWN);
+
+        int frames = 0;
+        while (enemy.getCurrentDirection() == Direction.DOWN && frames < 100) {
+            budget.startFrame();
+            enemy.searchPathSliced(1, 1, PathMode.A_STAR, budget);
+            assertTrue(budget.getRemaining() >= 0);
+            frames++;
+        }
+        assertTrue(frames > 1);
+        assertNotEquals(Direction.DOWN, enemy.getCurrentDirection());
+    }
+
+    /**
+     * Tests that a hero who cannot be reached costs no more than the budget in any frame.
+     */
+    @Test
+    void testUnreachableGoalStaysWithinBudget() {
+        // wall in the top left corner so (1,1) cannot be reached
+        gamePanel.tileM.setTileNum(2, 1, 2);
+        gamePanel.tileM.setTileNum(1, 2, 2);
+        SearchBudget budget = new SearchBudget(50, 1_000_000);
+        enemy.setPosition(25 * gamePanel.tileSize, 16 * gamePanel.tileSize);
+        enemy.setCurrentDirection(Direction.DOWN);
+
+        for (int frame = 0; frame < 100; frame++) {
+            budget.startFrame();
+            enemy.searchPathSliced(1, 1, PathMode.A_STAR, budget);
+            assertTrue(budget.getRemaining() >= 0);
+            assertEquals(Direction.DOWN, enemy.getCurrentDirection());
+        }
+    }
+
+    /**
+     * Tests that the budget grows with the number of enemies, and that harder difficulties
+     * get at least as much of it per enemy as easier ones.
+     */
+    @Test
+    void testBudgetScalesWithEnemies() {
+        SearchBudget budget = new SearchBudget(50, 1_000_000);
+        budget.startFrame(3);
+        assertEquals(150, budget.getRemaining());
+
+        int previous = 0;
+        for (String diff : new String[]{"Easy", "Medium", "Hard"}) {
+            gamePanel.setupGame(diff);
+            assertTrue(gamePanel.searchBudget.getExpansionsPerEnemy() >= previous);
+            previous = gamePanel.searchBudget.getExpansionsPerEnemy();
+        }
+    }
+}
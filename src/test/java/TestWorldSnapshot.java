@@ -0,0 +1,72 @@
+import com.game.GamePanel.MainGamePanel;
+import com.game.GamePanel.WorldSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the {@link WorldSnapshot} the game thread publishes for the renderer.
+ */
+public class TestWorldSnapshot {
+
+    private MainGamePanel gamePanel;
+
+    @BeforeEach
+    void setUp() {
+        gamePanel = new MainGamePanel();
+        gamePanel.setupGame("Easy");
+    }
+
+    private int itemCount() {
+        int count = 0;
+        for (int i = 0; i < gamePanel.item.length; i++) {
+            if (gamePanel.item[i] != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tests that setting up the game publishes a snapshot of the live state.
+     */
+    @Test
+    void testSetupPublishesSnapshot() {
+        WorldSnapshot frame = gamePanel.getSnapshot();
+        assertNotNull(frame);
+        assertEquals(itemCount(), frame.getItemCount());
+        assertEquals(gamePanel.getHero().getXPosition(), frame.getHero().getX());
+        assertEquals(gamePanel.getEnemy().getYPosition(), frame.getEnemy().getY());
+        assertEquals(gamePanel.getHero().getScore(), frame.getScore());
+    }
+
+    /**
+     * Tests that a published snapshot keeps its items and positions while the next tick
+     * removes an item and moves the hero, and that the tick publishes a new snapshot.
+     */
+    @Test
+    void testPublishedSnapshotIsNotChangedByLaterTicks() throws IOException {
+        WorldSnapshot before = gamePanel.getSnapshot();
+        int items = before.getItemCount();
+        int heroX = before.getHero().getX();
+
+        int slot = 0;
+        while (gamePanel.item[slot] == null) {
+            slot++;
+        }
+        gamePanel.item[slot] = null;
+        gamePanel.getHero().setPosition(heroX + 4, before.getHero().getY());
+        gamePanel.update();
+
+        assertEquals(items, before.getItemCount());
+        assertEquals(heroX, before.getHero().getX());
+
+        WorldSnapshot after = gamePanel.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals(items - 1, after.getItemCount());
+        assertEquals(gamePanel.getHero().getXPosition(), after.getHero().getX());
+    }
+}